@@ -0,0 +1,19 @@
+package com.maemlab.mvcifx.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a method of a {@link MVCIWiring} Controller that the generated factory calls once the Controller is constructed.
+ * The method must not be private or static, and must take no parameters.
+ *
+ * @see MVCIWiring
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.METHOD)
+public @interface AfterWiring {
+}
@@ -0,0 +1,59 @@
+package com.maemlab.mvcifx.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a record or a POJO as the source of a generated observable model class and of its
+ * {@code TableColumn} cell value factories.
+ *
+ * <p>For an annotated type {@code Nirvana}, the annotation processor shipped with the library generates, in the same package:
+ * <ul>
+ *   <li>{@code NirvanaModel}: an observable class holding one JavaFX property per record component or POJO field,
+ *       with {@code getX()}, {@code setX()} and {@code xProperty()} accessors, a static {@code toModel(Nirvana)}
+ *       converter and an {@code updateFrom(Nirvana)} method refreshing the properties in place, field by field,
+ *       only when their value changed</li>
+ *   <li>{@code NirvanaColumns}: one reflection-free cell value factory constant per property, and one factory method
+ *       per property creating a {@code TableColumn} already bound to it</li>
+ * </ul>
+ *
+ * <p>POJO fields are read through their {@code getX()}/{@code isX()} accessor, or directly if they are not private.
+ * Static fields are ignored.
+ *
+ * <p>Example:
+ * <pre>{@code
+ * @MVCIModel
+ * public record Nirvana(String name, String surname, int age) {}
+ *
+ * // in the Interactor
+ * model.getRows().setAll(nirvanas.stream().map(NirvanaModel::toModel).toList());
+ *
+ * // in the ViewBuilder
+ * table.getColumns().add(NirvanaColumns.name("Name"));
+ * table.getColumns().add(NirvanaColumns.age("Age"));
+ * }</pre>
+ *
+ * <p>To enable the processor, add the library to the annotation processor path of the project
+ * (e.g.: the {@code annotationProcessor} configuration in Gradle).
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface MVCIModel {
+    /**
+     * The simple name of the generated model class. Defaults to the name of the annotated type followed by {@code Model}.
+     *
+     * @return the name of the generated model class
+     */
+    String modelName() default "";
+
+    /**
+     * The simple name of the generated columns class. Defaults to the name of the annotated type followed by {@code Columns}.
+     *
+     * @return the name of the generated columns class
+     */
+    String columnsName() default "";
+}
@@ -0,0 +1,59 @@
+package com.maemlab.mvcifx.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a Controller whose wiring (the creation of its Model, Interactor, ViewBuilder and of the Controller itself)
+ * is generated at compile time, replacing the hand-written {@code create()} factories.
+ *
+ * <p>For an annotated {@code STController}, the annotation processor shipped with the library generates an
+ * {@code STControllerFactory} class, in the same package, with a static {@code create(...)} method that:
+ * <ol>
+ *   <li>Resolves the parameters of the Controller's constructor, which must be its only non-private constructor.
+ *       A parameter whose type is a concrete {@link com.maemlab.mvcifx.mvci.Model}, {@link com.maemlab.mvcifx.mvci.Interactor},
+ *       {@link com.maemlab.mvcifx.mvci.ViewBuilder} or {@link com.maemlab.mvcifx.mvci.Controller} class is created through
+ *       its own only non-private constructor, whose parameters are resolved the same way. Each class is created once per
+ *       call, so the Interactor and the ViewBuilder share the same Model instance. Any other parameter becomes a parameter
+ *       of the {@code create(...)} method.</li>
+ *   <li>Calls the Controller's constructor.</li>
+ *   <li>Calls the Controller's methods annotated with {@link AfterWiring}, e.g. to hand the Controller's actions to
+ *       the ViewBuilder.</li>
+ * </ol>
+ *
+ * <p>The generated code only uses plain constructor and method calls: there is no runtime reflection or classpath scanning,
+ * so it adds nothing to the startup time and works under {@code jlink}-built runtime images.
+ *
+ * <p>Example:
+ * <pre>{@code
+ * @MVCIWiring
+ * public class STController extends CommonController<STModel, STInteractor, STViewBuilder> {
+ *     STController(STModel model, STInteractor interactor, STViewBuilder viewBuilder) {
+ *         super(model, interactor, viewBuilder);
+ *     }
+ *
+ *     @AfterWiring
+ *     void bindActions() {
+ *         viewBuilder.setActions(this::lookup, this::save, this::delete, this::quit);
+ *     }
+ * }
+ *
+ * var view = STControllerFactory.create().getView();
+ * }</pre>
+ *
+ * @see AfterWiring
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface MVCIWiring {
+    /**
+     * The simple name of the generated factory class. Defaults to the name of the Controller followed by {@code Factory}.
+     *
+     * @return the name of the generated factory class
+     */
+    String factoryName() default "";
+}
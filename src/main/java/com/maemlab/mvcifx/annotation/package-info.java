@@ -0,0 +1,13 @@
+/**
+ * Provides the annotations processed at compile time by the annotation processors shipped with the library.
+ *
+ * <p>The annotations of this package have source retention: they generate plain Java code and have no runtime cost.
+ * <ul>
+ *   <li>{@link com.maemlab.mvcifx.annotation.MVCIModel}: Generates the observable model class and the
+ *   {@code TableColumn} cell value factories of a record or POJO
+ *   <li>{@link com.maemlab.mvcifx.annotation.MVCIWiring}: Generates the factory that creates and wires a Controller
+ *   with its Model, Interactor and ViewBuilder
+ *   <li>{@link com.maemlab.mvcifx.annotation.AfterWiring}: Marks the Controller methods called once the wiring is done
+ * </ul>
+ */
+package com.maemlab.mvcifx.annotation;
@@ -0,0 +1,220 @@
+package com.maemlab.mvcifx.change;
+
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.beans.property.Property;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.beans.value.ObservableBooleanValue;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Tracks which properties of a Model changed since they were last saved, so that a save can send only the changed
+ * fields instead of the whole entity.
+ *
+ * <p>Each tracked property is observed by one shared {@link InvalidationListener}, and the changed state of all the
+ * fields is kept in a {@link BitSet}: tracking a wide record costs one bit and one original value per field. A field
+ * set back to its original value is no longer dirty.
+ *
+ * <p>The save path of the Interactor reads {@link #getChanges()} and {@link #getOriginalValues()}, e.g. to build a
+ * partial update with an optimistic concurrency check. After a successful save, {@link #reset()} makes the current
+ * values the new originals; {@link #resetWhen(ObservableBooleanValue)} does it automatically when a condition
+ * signalled once the write succeeded turns true. It must not be {@code saveComplete}, which turns true when the user
+ * confirms the save, before the save path reads the changes. {@link #revert()} discards the changes.
+ *
+ * <p>Example:
+ * <pre>{@code
+ * var dirty = new DirtyFields()
+ *         .track("name", nameProperty)
+ *         .track("age", ageProperty);
+ * saveButton.disableProperty().bind(dirty.dirtyProperty().not());
+ * // in the save path
+ * dao.update(id, dirty.getChanges(), dirty.getOriginalValues());
+ * dirty.reset();
+ * }</pre>
+ * This class must be used on the thread owning the tracked properties, typically the JavaFX Application Thread.
+ *
+ * @see com.maemlab.mvcifx.mvci.statetracking.StateTrackingModel#getDirtyFields()
+ */
+public class DirtyFields {
+    private final List<String> names = new ArrayList<>();
+    private final List<Property<?>> fields = new ArrayList<>();
+    private final List<Object> originals = new ArrayList<>();
+    private final Map<Observable, Integer> indexes = new IdentityHashMap<>();
+    private final BitSet changed = new BitSet();
+    private final ReadOnlyBooleanWrapper dirty = new ReadOnlyBooleanWrapper(this, "dirty", false);
+    private final InvalidationListener listener = this::onInvalidated;
+    private final InvalidationListener resetListener = obs -> {
+        if (((ObservableBooleanValue) obs).get()) {
+            reset();
+        }
+    };
+
+    /**
+     * Creates a new tracker with no field.
+     */
+    public DirtyFields() {
+    }
+
+    /**
+     * Tracks a field. Its current value is recorded as its original value.
+     *
+     * @param name The name of the field, reported by {@link #getChangedFields()}
+     * @param field The property holding the field
+     * @return this tracker
+     * @throws IllegalArgumentException if a parameter is null, or if the name or the property is already tracked
+     */
+    public DirtyFields track(String name, Property<?> field) {
+        if (name == null || field == null) {
+            throw new IllegalArgumentException("Name and field must not be null");
+        }
+        if (names.contains(name) || indexes.containsKey(field)) {
+            throw new IllegalArgumentException("Field already tracked: " + name);
+        }
+
+        indexes.put(field, fields.size());
+        names.add(name);
+        fields.add(field);
+        originals.add(field.getValue());
+        field.addListener(listener);
+        return this;
+    }
+
+    /**
+     * Tracks fields named after their property name (see {@link Property#getName()}).
+     *
+     * @param fields The properties holding the fields
+     * @return this tracker
+     * @throws IllegalArgumentException if a property has no name, or is already tracked
+     */
+    public DirtyFields track(Property<?>... fields) {
+        for (Property<?> field : fields) {
+            if (field.getName() == null || field.getName().isEmpty()) {
+                throw new IllegalArgumentException("Property has no name: use track(String, Property)");
+            }
+            track(field.getName(), field);
+        }
+        return this;
+    }
+
+    private void onInvalidated(Observable observable) {
+        int index = indexes.get(observable);
+        // reading the value validates the property again, so that the next change is notified
+        changed.set(index, !Objects.equals(fields.get(index).getValue(), originals.get(index)));
+        dirty.set(!changed.isEmpty());
+    }
+
+    /**
+     * Makes the current values the original values, e.g. after a successful save.
+     */
+    public void reset() {
+        for (int i = changed.nextSetBit(0); i >= 0; i = changed.nextSetBit(i + 1)) {
+            originals.set(i, fields.get(i).getValue());
+        }
+        changed.clear();
+        dirty.set(false);
+    }
+
+    /**
+     * Resets the tracker each time the condition turns true, e.g. a "saved" flag the Interactor sets once the write
+     * succeeded. Listeners registered on the condition before this call run first, so they still see the changes.
+     *
+     * @param condition The condition
+     * @throws IllegalArgumentException if the condition is null
+     */
+    public void resetWhen(ObservableBooleanValue condition) {
+        if (condition == null) {
+            throw new IllegalArgumentException("Condition must not be null");
+        }
+        condition.addListener(resetListener);
+    }
+
+    /**
+     * Restores the original values of the changed fields.
+     */
+    @SuppressWarnings("unchecked")
+    public void revert() {
+        for (int i = changed.nextSetBit(0); i >= 0; i = changed.nextSetBit(i + 1)) {
+            ((Property<Object>) fields.get(i)).setValue(originals.get(i));
+        }
+    }
+
+    /**
+     * Tells whether at least one field differs from its original value.
+     * @return the read-only dirty property
+     */
+    public ReadOnlyBooleanProperty dirtyProperty() {
+        return dirty.getReadOnlyProperty();
+    }
+
+    public boolean isDirty() {
+        return dirty.get();
+    }
+
+    /**
+     * Tells whether a field differs from its original value.
+     *
+     * @param name The name of the field
+     * @return true if the field is changed
+     * @throws IllegalArgumentException if the field is not tracked
+     */
+    public boolean isChanged(String name) {
+        var index = names.indexOf(name);
+        if (index < 0) {
+            throw new IllegalArgumentException("Field not tracked: " + name);
+        }
+        return changed.get(index);
+    }
+
+    /**
+     * Gets the names of the changed fields, in tracking order.
+     * @return the names of the changed fields
+     */
+    public Set<String> getChangedFields() {
+        var result = new LinkedHashSet<String>();
+        for (int i = changed.nextSetBit(0); i >= 0; i = changed.nextSetBit(i + 1)) {
+            result.add(names.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Gets the current values of the changed fields.
+     * @return the current values of the changed fields, by name, in tracking order
+     */
+    public Map<String, Object> getChanges() {
+        var result = new LinkedHashMap<String, Object>();
+        for (int i = changed.nextSetBit(0); i >= 0; i = changed.nextSetBit(i + 1)) {
+            result.put(names.get(i), fields.get(i).getValue());
+        }
+        return result;
+    }
+
+    /**
+     * Gets the original values of the changed fields.
+     * @return the original values of the changed fields, by name, in tracking order
+     */
+    public Map<String, Object> getOriginalValues() {
+        var result = new LinkedHashMap<String, Object>();
+        for (int i = changed.nextSetBit(0); i >= 0; i = changed.nextSetBit(i + 1)) {
+            result.put(names.get(i), originals.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Stops tracking all the fields.
+     */
+    public void dispose() {
+        fields.forEach(field -> field.removeListener(listener));
+    }
+}
@@ -0,0 +1,316 @@
+package com.maemlab.mvcifx.change;
+
+import javafx.beans.value.WritableValue;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A compact record of a change made to a Model: a property set to a new value, or a range of a list replaced.
+ * Each record holds what is needed to apply the change and to revert it, i.e. the change and its inverse delta,
+ * instead of a snapshot of the whole Model.
+ *
+ * <p>Changes are created from the current state of the Model, before being applied:
+ * <pre>{@code
+ * var change = ModelChange.of(
+ *         ModelChange.set(item.nameProperty(), "Kurt"),
+ *         ModelChange.remove(model.getFetchedNirvanaModelList(), item));
+ * change.apply();
+ * // later, e.g. when the backend call failed
+ * change.revert();
+ * }</pre>
+ *
+ * <p>Reverting is tolerant to later changes: a property is only restored if it still holds the value set by the change,
+ * list elements are looked up if they moved since, and removed elements already back in the list (e.g. after a refresh
+ * of the whole list) are not inserted twice. Changes must be applied and reverted on the JavaFX Application
+ * Thread when the Model is bound to a live view.
+ *
+ * @see com.maemlab.mvcifx.mvci.statetracking.OptimisticUpdater
+ */
+public sealed interface ModelChange permits ModelChange.PropertyChange, ModelChange.ListChange, ModelChange.CompositeChange {
+    /**
+     * Applies the change to the Model.
+     */
+    void apply();
+
+    /**
+     * Reverts the change, restoring the state of the Model before {@link #apply()}.
+     */
+    void revert();
+
+    /**
+     * Gets the change reverting this one.
+     * @return the inverse change
+     */
+    ModelChange inverse();
+
+    /**
+     * Creates the change setting a property to a new value. The current value is recorded as the value to restore.
+     *
+     * @param target The property
+     * @param newValue The new value
+     * @param <T> The type of the value
+     * @return the change
+     */
+    static <T> PropertyChange<T> set(WritableValue<T> target, T newValue) {
+        return new PropertyChange<>(target, target.getValue(), newValue);
+    }
+
+    /**
+     * Creates the change adding an element at the end of a list.
+     *
+     * @param list The list
+     * @param element The element to add
+     * @param <E> The type of the elements
+     * @return the change
+     */
+    static <E> ListChange<E> add(List<E> list, E element) {
+        return add(list, list.size(), element);
+    }
+
+    /**
+     * Creates the change inserting an element in a list.
+     *
+     * @param list The list
+     * @param index The index of the element once added
+     * @param element The element to add
+     * @param <E> The type of the elements
+     * @return the change
+     */
+    static <E> ListChange<E> add(List<E> list, int index, E element) {
+        return new ListChange<>(list, index, List.of(), Collections.singletonList(element));
+    }
+
+    /**
+     * Creates the change removing an element from a list.
+     *
+     * @param list The list
+     * @param index The index of the element to remove
+     * @param <E> The type of the elements
+     * @return the change
+     */
+    static <E> ListChange<E> remove(List<E> list, int index) {
+        return new ListChange<>(list, index, Collections.singletonList(list.get(index)), List.of());
+    }
+
+    /**
+     * Creates the change removing an element from a list.
+     *
+     * @param list The list
+     * @param element The element to remove
+     * @param <E> The type of the elements
+     * @return the change
+     * @throws IllegalArgumentException if the list does not contain the element
+     */
+    static <E> ListChange<E> remove(List<E> list, E element) {
+        var index = list.indexOf(element);
+        if (index < 0) {
+            throw new IllegalArgumentException("Element not found: " + element);
+        }
+        return remove(list, index);
+    }
+
+    /**
+     * Creates the change replacing an element of a list.
+     *
+     * @param list The list
+     * @param index The index of the element to replace
+     * @param element The new element
+     * @param <E> The type of the elements
+     * @return the change
+     */
+    static <E> ListChange<E> replace(List<E> list, int index, E element) {
+        return new ListChange<>(list, index, Collections.singletonList(list.get(index)), Collections.singletonList(element));
+    }
+
+    /**
+     * Creates a change made of several changes, applied in order and reverted in reverse order.
+     *
+     * @param changes The changes
+     * @return the composite change
+     */
+    static CompositeChange of(ModelChange... changes) {
+        return new CompositeChange(List.of(changes));
+    }
+
+    /**
+     * The change of a property value.
+     *
+     * @param target The property
+     * @param oldValue The value before the change
+     * @param newValue The value after the change
+     * @param <T> The type of the value
+     */
+    record PropertyChange<T>(WritableValue<T> target, T oldValue, T newValue) implements ModelChange {
+        public PropertyChange {
+            Objects.requireNonNull(target, "target");
+        }
+
+        @Override
+        public void apply() {
+            target.setValue(newValue);
+        }
+
+        @Override
+        public void revert() {
+            if (Objects.equals(target.getValue(), newValue)) {
+                target.setValue(oldValue);
+            }
+        }
+
+        @Override
+        public PropertyChange<T> inverse() {
+            return new PropertyChange<>(target, newValue, oldValue);
+        }
+    }
+
+    /**
+     * The replacement of a range of a list: the {@code removed} elements found at {@code index} are replaced by the
+     * {@code added} elements. Additions and removals are replacements of an empty range.
+     *
+     * <p>Reverting only restores the removed elements which are not in the list anymore, compared with
+     * {@code equals}: a row removed and meanwhile reloaded by a lookup is not shown twice.
+     *
+     * @param list The list
+     * @param index The index of the range
+     * @param removed The elements removed by the change
+     * @param added The elements added by the change
+     * @param <E> The type of the elements
+     */
+    record ListChange<E>(List<E> list, int index, List<E> removed, List<E> added) implements ModelChange {
+        public ListChange {
+            Objects.requireNonNull(list, "list");
+            removed = Collections.unmodifiableList(new ArrayList<>(removed));
+            added = Collections.unmodifiableList(new ArrayList<>(added));
+        }
+
+        @Override
+        public void apply() {
+            applyOn(list);
+        }
+
+        @Override
+        public void revert() {
+            revertOn(list);
+        }
+
+        void applyOn(List<E> target) {
+            splice(target, index, removed.size(), added);
+        }
+
+        void revertOn(List<E> target) {
+            var at = Math.min(index, target.size());
+            if (!added.isEmpty() && !matches(target, at)) {
+                at = Collections.indexOfSubList(target, added);
+                if (at < 0) {
+                    return; // the added elements are gone: nothing left to revert
+                }
+            }
+            var absent = new ArrayList<E>(removed.size());
+            for (E element : removed) {
+                if (!containsOutside(target, at, added.size(), element)) {
+                    absent.add(element);
+                }
+            }
+            splice(target, at, added.size(), absent);
+        }
+
+        private static <E> boolean containsOutside(List<E> target, int from, int size, E element) {
+            return target.subList(0, from).contains(element) || target.subList(from + size, target.size()).contains(element);
+        }
+
+        private boolean matches(List<E> target, int at) {
+            return at + added.size() <= target.size() && target.subList(at, at + added.size()).equals(added);
+        }
+
+        private static <E> void splice(List<E> list, int index, int removedSize, List<E> added) {
+            if (removedSize == 1 && added.size() == 1) {
+                list.set(index, added.get(0)); // one replace notification
+                return;
+            }
+            if (removedSize > 0) {
+                list.subList(index, index + removedSize).clear();
+            }
+            if (!added.isEmpty()) {
+                list.addAll(index, added);
+            }
+        }
+
+        @Override
+        public ListChange<E> inverse() {
+            return new ListChange<>(list, index, added, removed);
+        }
+    }
+
+    /**
+     * A change made of several changes, applied in order and reverted in reverse order. Consecutive changes of the
+     * same observable list are computed on a copy of the list, and written back with a single {@code setAll}, so that
+     * listeners are notified once rather than once per change.
+     *
+     * @param changes The changes
+     */
+    record CompositeChange(List<ModelChange> changes) implements ModelChange {
+        public CompositeChange {
+            changes = List.copyOf(changes);
+        }
+
+        @Override
+        public void apply() {
+            run(changes, false);
+        }
+
+        @Override
+        public void revert() {
+            var reversed = new ArrayList<>(changes);
+            Collections.reverse(reversed);
+            run(reversed, true);
+        }
+
+        private static void run(List<ModelChange> ordered, boolean revert) {
+            for (int i = 0; i < ordered.size(); ) {
+                var change = ordered.get(i);
+                int end = i + 1;
+                if (change instanceof ListChange<?> first && first.list() instanceof ObservableList<?>) {
+                    while (end < ordered.size() && ordered.get(end) instanceof ListChange<?> next && next.list() == first.list()) {
+                        end++;
+                    }
+                }
+                if (end - i > 1) {
+                    spliceAll(ordered.subList(i, end), revert);
+                } else if (revert) {
+                    change.revert();
+                } else {
+                    change.apply();
+                }
+                i = end;
+            }
+        }
+
+        // consecutive changes of an observable list are computed on a copy, and notified as one change
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static void spliceAll(List<ModelChange> run, boolean revert) {
+            var list = (ObservableList) ((ListChange<?>) run.get(0)).list();
+            var result = new ArrayList(list);
+            for (var change : run) {
+                if (revert) {
+                    ((ListChange) change).revertOn(result);
+                } else {
+                    ((ListChange) change).applyOn(result);
+                }
+            }
+            list.setAll(result);
+        }
+
+        @Override
+        public CompositeChange inverse() {
+            var inverses = new ArrayList<ModelChange>(changes.size());
+            for (int i = changes.size() - 1; i >= 0; i--) {
+                inverses.add(changes.get(i).inverse());
+            }
+            return new CompositeChange(inverses);
+        }
+    }
+}
@@ -0,0 +1,392 @@
+package com.maemlab.mvcifx.change;
+
+import javafx.beans.property.Property;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.beans.value.ChangeListener;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An undo/redo journal of the edits made to a Model, recorded as {@link ModelChange} records rather than snapshots:
+ * an entry only holds the changed values and list ranges, whatever the size of the Model.
+ *
+ * <p>Changes are recorded automatically for the properties and lists passed to {@link #track(Property[])} and
+ * {@link #track(ObservableList)}, or explicitly through {@link #record(ModelChange)}. The changes made within
+ * {@link #batch(Runnable)} are recorded as a single entry. Consecutive changes of the same property made within the
+ * coalescing window (500 milliseconds by default), such as rapid typing in a text field, are merged into one entry.
+ *
+ * <p>Only the edits of the user belong in the journal. The changes made while the journal is suspended, e.g. when the
+ * Interactor applies the result of a lookup within {@link #untracked(Runnable)}, are not recorded: undo never reverts
+ * a data refresh, and a refresh does not cost an entry holding the whole old and new list.
+ *
+ * <p>The journal keeps at most {@code capacity} entries: the oldest entry is dropped when a new one is recorded past
+ * the capacity. Each {@link #undo()} or {@link #redo()} reverts or applies a whole entry at once, without recording it
+ * again.
+ *
+ * <p>Example:
+ * <pre>{@code
+ * var journal = new UndoJournal(50);
+ * journal.track(model.nameProperty(), model.descriptionProperty());
+ * journal.track(model.getFetchedNirvanaModelList());
+ * undoButton.disableProperty().bind(journal.canUndoProperty().not());
+ * undoButton.setOnAction(event -> journal.undo());
+ * // in the Interactor
+ * journal.untracked(() -> model.getFetchedNirvanaModelList().setAll(fetchedList));
+ * }</pre>
+ * This class must be used on the JavaFX Application Thread.
+ *
+ * @see ModelChange
+ */
+public class UndoJournal {
+    private final int capacity;
+    private final Deque<ModelChange> undoStack = new ArrayDeque<>();
+    private final Deque<ModelChange> redoStack = new ArrayDeque<>();
+    private final ReadOnlyBooleanWrapper canUndo = new ReadOnlyBooleanWrapper(this, "canUndo", false);
+    private final ReadOnlyBooleanWrapper canRedo = new ReadOnlyBooleanWrapper(this, "canRedo", false);
+    private final List<Runnable> untrackers = new ArrayList<>();
+    private Duration coalescingWindow = Duration.ofMillis(500);
+    private long lastRecordNanos;
+    private boolean sealed = true;
+    private boolean replaying;
+    private int suspended;
+    private List<ModelChange> batch;
+
+    /**
+     * Creates a new journal keeping at most 100 entries.
+     */
+    public UndoJournal() {
+        this(100);
+    }
+
+    /**
+     * Creates a new journal.
+     *
+     * @param capacity The maximum number of entries kept for undo
+     * @throws IllegalArgumentException if the capacity is not positive
+     */
+    public UndoJournal(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Sets the window within which consecutive changes of the same property are merged into one entry.
+     *
+     * @param window The coalescing window. {@link Duration#ZERO} disables coalescing.
+     * @throws IllegalArgumentException if the window is null or negative
+     */
+    public void setCoalescingWindow(Duration window) {
+        if (window == null || window.isNegative()) {
+            throw new IllegalArgumentException("Coalescing window must not be null or negative");
+        }
+        this.coalescingWindow = window;
+    }
+
+    /**
+     * Records the changes of the specified properties.
+     *
+     * @param properties The properties to track
+     */
+    public void track(Property<?>... properties) {
+        for (Property<?> property : properties) {
+            track(property);
+        }
+    }
+
+    private <T> void track(Property<T> property) {
+        ChangeListener<T> listener = (obs, oldValue, newValue) -> record(new ModelChange.PropertyChange<>(property, oldValue, newValue));
+        property.addListener(listener);
+        untrackers.add(() -> property.removeListener(listener));
+    }
+
+    /**
+     * Records the changes of the specified list: additions, removals, replacements and permutations.
+     * Updates of the elements themselves are not recorded; their properties can be tracked separately.
+     *
+     * @param list The list to track
+     * @param <E> The type of the elements
+     */
+    public <E> void track(ObservableList<E> list) {
+        ListChangeListener<E> listener = change -> {
+            var changes = new ArrayList<ModelChange>();
+            while (change.next()) {
+                if (change.wasPermutated()) {
+                    // a permutation is recorded as the replacement of the permuted range by itself, reordered
+                    var from = change.getFrom();
+                    var to = change.getTo();
+                    var before = new ArrayList<E>(to - from);
+                    for (int i = from; i < to; i++) {
+                        before.add(list.get(change.getPermutation(i)));
+                    }
+                    changes.add(new ModelChange.ListChange<>(list, from, before, list.subList(from, to)));
+                } else if (!change.wasUpdated()) {
+                    changes.add(new ModelChange.ListChange<>(list, change.getFrom(), new ArrayList<E>(change.getRemoved()),
+                            new ArrayList<E>(change.getAddedSubList())));
+                }
+            }
+            if (!changes.isEmpty()) {
+                record(changes.size() == 1 ? changes.get(0) : new ModelChange.CompositeChange(changes));
+            }
+        };
+        list.addListener(listener);
+        untrackers.add(() -> list.removeListener(listener));
+    }
+
+    /**
+     * Records a change already applied to the Model. It is ignored while an entry is undone or redone, and while the
+     * journal is suspended.
+     *
+     * @param change The change
+     * @throws IllegalArgumentException if the change is null
+     */
+    public void record(ModelChange change) {
+        if (change == null) {
+            throw new IllegalArgumentException("Change must not be null");
+        }
+        if (replaying || suspended > 0) {
+            return;
+        }
+        if (batch != null) {
+            batch.add(change);
+            return;
+        }
+
+        var now = System.nanoTime();
+        if (!coalesce(change, now)) {
+            undoStack.addLast(change);
+            if (undoStack.size() > capacity) {
+                undoStack.removeFirst();
+            }
+        }
+        lastRecordNanos = now;
+        sealed = false;
+        redoStack.clear();
+        updateState();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private boolean coalesce(ModelChange change, long now) {
+        if (sealed || now - lastRecordNanos > coalescingWindow.toNanos()
+                || !(change instanceof ModelChange.PropertyChange<?> next)
+                || !(undoStack.peekLast() instanceof ModelChange.PropertyChange<?> last)
+                || last.target() != next.target()) {
+            return false;
+        }
+
+        undoStack.removeLast();
+        if (!Objects.equals(last.oldValue(), next.newValue())) {
+            undoStack.addLast(new ModelChange.PropertyChange(last.target(), last.oldValue(), next.newValue()));
+        }
+        return true;
+    }
+
+    /**
+     * Applies a change and records it.
+     *
+     * @param change The change
+     * @throws IllegalArgumentException if the change is null
+     */
+    public void execute(ModelChange change) {
+        if (change == null) {
+            throw new IllegalArgumentException("Change must not be null");
+        }
+        var wasReplaying = replaying;
+        replaying = true;
+        try {
+            change.apply();
+        } finally {
+            replaying = wasReplaying;
+        }
+        record(change);
+    }
+
+    /**
+     * Runs an edit, recording all the changes it makes as a single entry.
+     *
+     * @param edit The edit
+     */
+    public void batch(Runnable edit) {
+        if (batch != null) {
+            edit.run(); // nested batch: part of the enclosing entry
+            return;
+        }
+
+        batch = new ArrayList<>();
+        List<ModelChange> changes;
+        try {
+            edit.run();
+        } finally {
+            changes = batch;
+            batch = null;
+        }
+        if (!changes.isEmpty()) {
+            record(changes.size() == 1 ? changes.get(0) : new ModelChange.CompositeChange(changes));
+            seal();
+        }
+    }
+
+    /**
+     * Runs a change of the Model which is not an edit of the user, without recording it: typically the Model update
+     * of a lookup, e.g. in {@code updateModelAfterFetchingData}.
+     *
+     * @param change The change
+     */
+    public void untracked(Runnable change) {
+        suspend();
+        try {
+            change.run();
+        } finally {
+            resume();
+        }
+    }
+
+    /**
+     * Stops recording changes until {@link #resume()} is called. Calls can be nested: recording resumes when each
+     * call to this method has been matched by a call to {@link #resume()}.
+     */
+    public void suspend() {
+        suspended++;
+    }
+
+    /**
+     * Resumes recording changes after {@link #suspend()}. The next change is recorded as a new entry.
+     *
+     * @throws IllegalStateException if the journal is not suspended
+     */
+    public void resume() {
+        if (suspended == 0) {
+            throw new IllegalStateException("Journal is not suspended");
+        }
+        suspended--;
+        sealed = true;
+    }
+
+    /**
+     * Tells whether the journal is suspended.
+     * @return true if changes are not recorded
+     */
+    public boolean isSuspended() {
+        return suspended > 0;
+    }
+
+    /**
+     * Ends the current entry: the next change is recorded as a new entry even within the coalescing window,
+     * e.g. when the focus leaves a text field.
+     */
+    public void seal() {
+        sealed = true;
+    }
+
+    /**
+     * Reverts the last entry.
+     * @return true if an entry was reverted, false if there was nothing to undo
+     */
+    public boolean undo() {
+        var change = undoStack.pollLast();
+        if (change == null) {
+            return false;
+        }
+        replay(change::revert);
+        redoStack.addLast(change);
+        updateState();
+        return true;
+    }
+
+    /**
+     * Applies again the last reverted entry.
+     * @return true if an entry was applied, false if there was nothing to redo
+     */
+    public boolean redo() {
+        var change = redoStack.pollLast();
+        if (change == null) {
+            return false;
+        }
+        replay(change::apply);
+        undoStack.addLast(change);
+        updateState();
+        return true;
+    }
+
+    private void replay(Runnable action) {
+        replaying = true;
+        try {
+            action.run();
+        } finally {
+            replaying = false;
+            sealed = true;
+        }
+    }
+
+    private void updateState() {
+        canUndo.set(!undoStack.isEmpty());
+        canRedo.set(!redoStack.isEmpty());
+    }
+
+    /**
+     * Removes all the entries.
+     */
+    public void clear() {
+        undoStack.clear();
+        redoStack.clear();
+        sealed = true;
+        updateState();
+    }
+
+    /**
+     * Tells whether there is an entry to undo.
+     * @return the read-only canUndo property
+     */
+    public ReadOnlyBooleanProperty canUndoProperty() {
+        return canUndo.getReadOnlyProperty();
+    }
+
+    public boolean canUndo() {
+        return canUndo.get();
+    }
+
+    /**
+     * Tells whether there is an entry to redo.
+     * @return the read-only canRedo property
+     */
+    public ReadOnlyBooleanProperty canRedoProperty() {
+        return canRedo.getReadOnlyProperty();
+    }
+
+    public boolean canRedo() {
+        return canRedo.get();
+    }
+
+    /**
+     * Gets the number of entries that can be undone.
+     * @return the number of undo entries
+     */
+    public int getUndoSize() {
+        return undoStack.size();
+    }
+
+    /**
+     * Gets the number of entries that can be redone.
+     * @return the number of redo entries
+     */
+    public int getRedoSize() {
+        return redoStack.size();
+    }
+
+    /**
+     * Stops recording the changes of the tracked properties and lists.
+     */
+    public void dispose() {
+        untrackers.forEach(Runnable::run);
+        untrackers.clear();
+    }
+}
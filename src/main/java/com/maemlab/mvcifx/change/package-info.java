@@ -0,0 +1,16 @@
+/**
+ * Provides the recording of Model changes.
+ *
+ * <p>This package contains the components that describe the changes made to a Model, so that they can be reverted:
+ * <ul>
+ *   <li>{@link com.maemlab.mvcifx.change.ModelChange}: A compact record of a property or list change, holding its
+ *   inverse delta
+ *   <li>{@link com.maemlab.mvcifx.change.DirtyFields}: Tracks the fields changed since the last save in a bitset,
+ *   with their original values, for delta-only saves
+ *   <li>{@link com.maemlab.mvcifx.change.UndoJournal}: A bounded undo/redo journal of change records, coalescing
+ *   rapid edits of a property into one entry
+ * </ul>
+ *
+ * @see com.maemlab.mvcifx.mvci.statetracking.OptimisticUpdater
+ */
+package com.maemlab.mvcifx.change;
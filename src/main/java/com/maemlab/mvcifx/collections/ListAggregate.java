@@ -0,0 +1,319 @@
+package com.maemlab.mvcifx.collections;
+
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.ReadOnlyDoubleWrapper;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+import javafx.beans.value.ObservableNumberValue;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * An incrementally maintained set of aggregates (count, sum, min, max and average) over a numeric property
+ * of the rows held by a Model's {@link ObservableList}.
+ *
+ * <p>Instead of recomputing the aggregates with a stream over the whole list whenever something changes,
+ * this class keeps them up to date from the {@link ListChangeListener} deltas of the list and from the
+ * invalidation of the selected row properties. Each change costs O(log n) per added, removed or modified row:
+ * <ul>
+ *   <li>{@code count}, {@code sum} and {@code average} are adjusted by the delta of the changed rows</li>
+ *   <li>{@code min} and {@code max} are read from a sorted multiset of the current values</li>
+ * </ul>
+ *
+ * <p>The results are exposed as read-only properties that a ViewBuilder can bind to, for example in a table footer:
+ * <pre>{@code
+ * var ages = new ListAggregate<>(model.getFetchedNirvanaModelList(), NirvanaModel::ageProperty);
+ * footerLabel.textProperty().bind(ages.averageProperty().asString("Average age: %.1f"));
+ * }</pre>
+ *
+ * <p>The running sum of the finite values is kept with compensated (Neumaier) summation, so that small values are not
+ * lost next to a large value added and removed later; it is recomputed from the current values in the rare cases where
+ * the rounding error of the compensation may exceed the precision of the sum. Non-finite values are counted apart:
+ * {@code sum} and {@code average} are {@link Double#NaN} or infinite only while such a value is in the list.
+ *
+ * <p>When the list is empty, {@code min}, {@code max} and {@code average} are {@link Double#NaN}.
+ * A single invalidation listener instance is shared by all rows, so tracking a row costs no extra listener allocation.
+ * Like the list it observes, this class must only be used on the JavaFX Application Thread.
+ *
+ * @param <T> The type of the rows held by the observed list
+ *
+ * @see ObservableList
+ * @see ObservableNumberValue
+ */
+public class ListAggregate<T> {
+    private final ObservableList<T> list;
+    private final Function<? super T, ? extends ObservableNumberValue> valueExtractor;
+
+    private final ReadOnlyIntegerWrapper count = new ReadOnlyIntegerWrapper(this, "count");
+    private final ReadOnlyDoubleWrapper sum = new ReadOnlyDoubleWrapper(this, "sum");
+    private final ReadOnlyDoubleWrapper min = new ReadOnlyDoubleWrapper(this, "min", Double.NaN);
+    private final ReadOnlyDoubleWrapper max = new ReadOnlyDoubleWrapper(this, "max", Double.NaN);
+    private final ReadOnlyDoubleWrapper average = new ReadOnlyDoubleWrapper(this, "average", Double.NaN);
+
+    private final Map<T, Entry> entriesByRow = new IdentityHashMap<>();
+    private final Map<Observable, Entry> entriesByValue = new IdentityHashMap<>();
+    private final TreeMap<Double, Integer> values = new TreeMap<>();
+    private double total; // of the finite values
+    private double compensation; // the low-order bits lost by total
+    private double drift; // bound of the rounding error of compensation, since the last recomputation
+    private int nans;
+    private int positiveInfinities;
+    private int negativeInfinities;
+
+    private final ListChangeListener<T> listListener = this::onListChanged;
+    private final InvalidationListener valueListener = this::onValueInvalidated;
+
+    /**
+     * Creates a new aggregate bound to the specified list.
+     *
+     * @param list The list whose rows are aggregated. Must not be null.
+     * @param valueExtractor A function returning the numeric property of a row to aggregate
+     *                       (e.g.: {@code NirvanaModel::ageProperty}). Must not be null.
+     * @throws IllegalArgumentException if any parameter is null
+     */
+    public ListAggregate(ObservableList<T> list, Function<? super T, ? extends ObservableNumberValue> valueExtractor) {
+        if (list == null || valueExtractor == null) {
+            throw new IllegalArgumentException("List and value extractor must not be null");
+        }
+
+        this.list = list;
+        this.valueExtractor = valueExtractor;
+
+        for (T row : list) {
+            track(row);
+        }
+        publish();
+        list.addListener(listListener);
+    }
+
+    private void onListChanged(ListChangeListener.Change<? extends T> c) {
+        while (c.next()) {
+            if (c.wasPermutated()) {
+                continue; // aggregates do not depend on the order of the rows
+            }
+            if (c.wasUpdated()) {
+                for (int i = c.getFrom(); i < c.getTo(); i++) {
+                    var entry = entriesByRow.get(list.get(i));
+                    if (entry != null) {
+                        refresh(entry);
+                    }
+                }
+                continue;
+            }
+            for (T row : c.getRemoved()) {
+                untrack(row);
+            }
+            if (c.wasAdded()) {
+                for (T row : c.getAddedSubList()) {
+                    track(row);
+                }
+            }
+        }
+        publish();
+    }
+
+    private void onValueInvalidated(Observable observable) {
+        var entry = entriesByValue.get(observable);
+        if (entry != null) {
+            refresh(entry);
+            publish();
+        }
+    }
+
+    private void track(T row) {
+        var entry = entriesByRow.get(row);
+        if (entry == null) {
+            var value = valueExtractor.apply(row);
+            entry = new Entry(value, value.doubleValue());
+            entriesByRow.put(row, entry);
+            entriesByValue.put(value, entry);
+            value.addListener(valueListener);
+        }
+        entry.occurrences++;
+        addValue(entry.current, 1);
+    }
+
+    private void untrack(T row) {
+        var entry = entriesByRow.get(row);
+        if (entry == null) {
+            return;
+        }
+        entry.occurrences--;
+        removeValue(entry.current, 1);
+        if (entry.occurrences == 0) {
+            entry.value.removeListener(valueListener);
+            entriesByRow.remove(row);
+            entriesByValue.remove(entry.value);
+        }
+    }
+
+    private void refresh(Entry entry) {
+        // reading the value also revalidates the property, so the next change fires a new invalidation
+        double updated = entry.value.doubleValue();
+        if (Double.compare(updated, entry.current) != 0) {
+            removeValue(entry.current, entry.occurrences);
+            entry.current = updated;
+            addValue(updated, entry.occurrences);
+        }
+    }
+
+    private void addValue(double value, int times) {
+        values.merge(value, times, Integer::sum);
+        accumulate(value, times);
+    }
+
+    private void removeValue(double value, int times) {
+        values.computeIfPresent(value, (k, n) -> n > times ? n - times : null);
+        accumulate(value, -times);
+    }
+
+    private void accumulate(double value, int times) {
+        if (Double.isNaN(value)) {
+            nans += times;
+        } else if (value == Double.POSITIVE_INFINITY) {
+            positiveInfinities += times;
+        } else if (value == Double.NEGATIVE_INFINITY) {
+            negativeInfinities += times;
+        } else {
+            double product = value * times;
+            double sum = total + product;
+            // Neumaier: keep the bits of the smaller operand that the addition dropped
+            compensation += Math.abs(total) >= Math.abs(product) ? (total - sum) + product : (product - sum) + total;
+            compensation += Math.fma(value, times, -product);
+            total = sum;
+            if (compensation != 0) {
+                drift += Math.ulp(compensation);
+            }
+        }
+    }
+
+    private void recompute() {
+        total = 0;
+        compensation = 0;
+        nans = 0;
+        positiveInfinities = 0;
+        negativeInfinities = 0;
+        values.forEach(this::accumulate);
+        drift = 0;
+    }
+
+    private double currentSum() {
+        if (nans > 0 || (positiveInfinities > 0 && negativeInfinities > 0)) {
+            return Double.NaN;
+        }
+        if (positiveInfinities > 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        if (negativeInfinities > 0) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        return Double.isFinite(total) ? total + compensation : total; // overflow of the finite values
+    }
+
+    private void publish() {
+        // an overflowed total is recomputed too, in case the values that overflowed it were removed
+        if (values.isEmpty() || !Double.isFinite(total) || drift > Math.ulp(total + compensation)) {
+            recompute();
+        }
+
+        int size = list.size();
+        double currentSum = currentSum();
+        count.set(size);
+        sum.set(currentSum);
+        min.set(values.isEmpty() ? Double.NaN : values.firstKey());
+        max.set(values.isEmpty() ? Double.NaN : values.lastKey());
+        average.set(size == 0 ? Double.NaN : currentSum / size);
+    }
+
+    /**
+     * Stops observing the list and the row properties.
+     * After this method is called, the aggregate properties keep their last values.
+     */
+    public void dispose() {
+        list.removeListener(listListener);
+        for (var entry : entriesByRow.values()) {
+            entry.value.removeListener(valueListener);
+        }
+        entriesByRow.clear();
+        entriesByValue.clear();
+        values.clear();
+    }
+
+    /**
+     * Gets the property holding the number of rows in the list.
+     * @return a read-only IntegerProperty tracking the row count
+     */
+    public ReadOnlyIntegerProperty countProperty() {
+        return count.getReadOnlyProperty();
+    }
+
+    public int getCount() {
+        return count.get();
+    }
+
+    /**
+     * Gets the property holding the sum of the aggregated values.
+     * @return a read-only DoubleProperty tracking the sum
+     */
+    public ReadOnlyDoubleProperty sumProperty() {
+        return sum.getReadOnlyProperty();
+    }
+
+    public double getSum() {
+        return sum.get();
+    }
+
+    /**
+     * Gets the property holding the smallest aggregated value, or {@link Double#NaN} if the list is empty.
+     * @return a read-only DoubleProperty tracking the minimum
+     */
+    public ReadOnlyDoubleProperty minProperty() {
+        return min.getReadOnlyProperty();
+    }
+
+    public double getMin() {
+        return min.get();
+    }
+
+    /**
+     * Gets the property holding the largest aggregated value, or {@link Double#NaN} if the list is empty.
+     * @return a read-only DoubleProperty tracking the maximum
+     */
+    public ReadOnlyDoubleProperty maxProperty() {
+        return max.getReadOnlyProperty();
+    }
+
+    public double getMax() {
+        return max.get();
+    }
+
+    /**
+     * Gets the property holding the average of the aggregated values, or {@link Double#NaN} if the list is empty.
+     * @return a read-only DoubleProperty tracking the average
+     */
+    public ReadOnlyDoubleProperty averageProperty() {
+        return average.getReadOnlyProperty();
+    }
+
+    public double getAverage() {
+        return average.get();
+    }
+
+    private static final class Entry {
+        private final ObservableNumberValue value;
+        private double current;
+        private int occurrences;
+
+        private Entry(ObservableNumberValue value, double current) {
+            this.value = value;
+            this.current = current;
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package com.maemlab.mvcifx.collections;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * An immutable, structurally shared list that worker threads can build and hand to the JavaFX Application Thread
+ * without copying.
+ *
+ * <p>The list is stored as a 32-way trie: every "modification" ({@link #plus(Object)}, {@link #with(int, Object)},
+ * {@link #minusLast()}) returns a new version that copies only the O(log<sub>32</sub> n) nodes on the path to the
+ * changed element and shares everything else with the previous version. Since instances are immutable,
+ * they can be safely published from a background Task to the UI.
+ *
+ * <p>When the previous and the next version of a list share their structure, {@link SnapshotList} can compute
+ * the difference between them by comparing nodes by identity, and turn it into precise change events.
+ *
+ * <p>Typical usage inside an {@link com.maemlab.mvcifx.mvci.Interactor}:
+ * <pre>{@code
+ * private volatile PersistentList<NirvanaModel> fetched = PersistentList.empty();
+ *
+ * public void fetchData() {               // worker thread
+ *     fetched = fetched.with(index, updatedRow);
+ * }
+ *
+ * public void updateModelAfterFetchingData() {    // JavaFX Application Thread
+ *     model.getRows().setSnapshot(fetched);
+ * }
+ * }</pre>
+ *
+ * <p>All the {@link List} mutators inherited from {@link AbstractList} throw {@link UnsupportedOperationException}.
+ * {@code null} elements are permitted.
+ *
+ * @param <E> The type of the elements
+ *
+ * @see SnapshotList
+ */
+public final class PersistentList<E> extends AbstractList<E> implements RandomAccess {
+    static final int BITS = 5;
+    static final int WIDTH = 1 << BITS;
+    static final int MASK = WIDTH - 1;
+
+    private static final PersistentList<?> EMPTY = new PersistentList<>(new Object[0], 0, 0);
+
+    final Object[] root;
+    final int shift;
+    private final int size;
+
+    private PersistentList(Object[] root, int shift, int size) {
+        this.root = root;
+        this.shift = shift;
+        this.size = size;
+    }
+
+    /**
+     * Returns the empty list.
+     *
+     * @param <E> The type of the elements
+     * @return an empty PersistentList
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentList<E> empty() {
+        return (PersistentList<E>) EMPTY;
+    }
+
+    /**
+     * Creates a new list containing the elements of the specified collection, in iteration order.
+     * The trie is built bottom-up in O(n), without intermediate versions.
+     *
+     * @param elements The elements of the new list. Must not be null.
+     * @param <E> The type of the elements
+     * @return a PersistentList containing the given elements
+     */
+    public static <E> PersistentList<E> copyOf(Collection<? extends E> elements) {
+        if (elements instanceof PersistentList<?> persistent) {
+            @SuppressWarnings("unchecked")
+            var same = (PersistentList<E>) persistent;
+            return same;
+        }
+        return fromArray(elements.toArray());
+    }
+
+    /**
+     * Creates a new, empty {@link Builder}.
+     *
+     * @param <E> The type of the elements
+     * @return a Builder
+     */
+    public static <E> Builder<E> builder() {
+        return new Builder<>(empty());
+    }
+
+    private static <E> PersistentList<E> fromArray(Object[] elements) {
+        if (elements.length == 0) {
+            return empty();
+        }
+
+        Object[] level = chunk(elements);
+        int shift = 0;
+        while (level.length > 1) {
+            level = chunk(level);
+            shift += BITS;
+        }
+        return new PersistentList<>((Object[]) level[0], shift, elements.length);
+    }
+
+    private static Object[] chunk(Object[] items) {
+        var nodes = new Object[(items.length + MASK) >>> BITS];
+        for (int i = 0; i < nodes.length; i++) {
+            int from = i << BITS;
+            nodes[i] = Arrays.copyOfRange(items, from, Math.min(from + WIDTH, items.length));
+        }
+        return nodes;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        Objects.checkIndex(index, size);
+        return (E) leafFor(index)[index & MASK];
+    }
+
+    Object[] leafFor(int index) {
+        var node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(index >>> level) & MASK];
+        }
+        return node;
+    }
+
+    /**
+     * Returns a new version of this list with the specified element appended.
+     *
+     * @param element The element to append
+     * @return a new PersistentList sharing all but one path with this list
+     */
+    public PersistentList<E> plus(E element) {
+        if (size == 0) {
+            return new PersistentList<>(new Object[]{element}, 0, 1);
+        }
+        if (size == 1 << (shift + BITS)) { // root is full: grow the trie by one level
+            var newRoot = new Object[]{root, newPath(shift, element)};
+            return new PersistentList<>(newRoot, shift + BITS, size + 1);
+        }
+        return new PersistentList<>(append(shift, root, size, element), shift, size + 1);
+    }
+
+    private static Object[] append(int level, Object[] node, int index, Object element) {
+        int slot = (index >>> level) & MASK;
+        var copy = Arrays.copyOf(node, Math.max(node.length, slot + 1));
+        if (level == 0) {
+            copy[slot] = element;
+        } else {
+            copy[slot] = slot < node.length
+                    ? append(level - BITS, (Object[]) node[slot], index, element)
+                    : newPath(level - BITS, element);
+        }
+        return copy;
+    }
+
+    private static Object[] newPath(int level, Object element) {
+        return level == 0 ? new Object[]{element} : new Object[]{newPath(level - BITS, element)};
+    }
+
+    /**
+     * Returns a new version of this list with the element at the specified position replaced.
+     *
+     * @param index The index of the element to replace
+     * @param element The new element
+     * @return a new PersistentList sharing all but one path with this list
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public PersistentList<E> with(int index, E element) {
+        Objects.checkIndex(index, size);
+        if (get(index) == element) {
+            return this;
+        }
+        return new PersistentList<>(replace(shift, root, index, element), shift, size);
+    }
+
+    private static Object[] replace(int level, Object[] node, int index, Object element) {
+        var copy = node.clone();
+        int slot = (index >>> level) & MASK;
+        copy[slot] = level == 0 ? element : replace(level - BITS, (Object[]) node[slot], index, element);
+        return copy;
+    }
+
+    /**
+     * Returns a new version of this list without its last element.
+     *
+     * @return a new PersistentList sharing all but one path with this list
+     * @throws IllegalStateException if this list is empty
+     */
+    public PersistentList<E> minusLast() {
+        if (size == 0) {
+            throw new IllegalStateException("List is empty");
+        }
+        if (size == 1) {
+            return empty();
+        }
+
+        var newRoot = removeLast(shift, root, size - 1);
+        int newShift = shift;
+        while (newShift > 0 && newRoot.length == 1) {
+            newRoot = (Object[]) newRoot[0];
+            newShift -= BITS;
+        }
+        return new PersistentList<>(newRoot, newShift, size - 1);
+    }
+
+    private static Object[] removeLast(int level, Object[] node, int index) {
+        int slot = (index >>> level) & MASK;
+        if (level == 0) {
+            return slot == 0 ? null : Arrays.copyOf(node, slot);
+        }
+
+        var child = removeLast(level - BITS, (Object[]) node[slot], index);
+        if (child == null) {
+            return slot == 0 ? null : Arrays.copyOf(node, slot);
+        }
+        var copy = node.clone();
+        copy[slot] = child;
+        return copy;
+    }
+
+    /**
+     * Creates a new {@link Builder} initialized with the content of this list.
+     * Elements replaced through the builder are path-copied, so the built list keeps sharing structure with this one.
+     *
+     * @return a Builder
+     */
+    public Builder<E> toBuilder() {
+        return new Builder<>(this);
+    }
+
+    /**
+     * A mutable builder for {@link PersistentList}, meant to be confined to the worker thread that fills it.
+     * Appended elements are buffered and added to the trie in one pass by {@link #build()}.
+     *
+     * @param <E> The type of the elements
+     */
+    public static final class Builder<E> {
+        private PersistentList<E> base;
+        private final List<E> appended = new ArrayList<>();
+
+        private Builder(PersistentList<E> base) {
+            this.base = base;
+        }
+
+        /**
+         * Appends an element.
+         *
+         * @param element The element to append
+         * @return this builder
+         */
+        public Builder<E> add(E element) {
+            appended.add(element);
+            return this;
+        }
+
+        /**
+         * Appends all the elements of the specified collection.
+         *
+         * @param elements The elements to append. Must not be null.
+         * @return this builder
+         */
+        public Builder<E> addAll(Collection<? extends E> elements) {
+            appended.addAll(elements);
+            return this;
+        }
+
+        /**
+         * Replaces the element at the specified position.
+         *
+         * @param index The index of the element to replace
+         * @param element The new element
+         * @return this builder
+         * @throws IndexOutOfBoundsException if the index is out of range
+         */
+        public Builder<E> set(int index, E element) {
+            Objects.checkIndex(index, size());
+            if (index < base.size()) {
+                base = base.with(index, element);
+            } else {
+                appended.set(index - base.size(), element);
+            }
+            return this;
+        }
+
+        /**
+         * Returns the number of elements added so far, including the initial ones.
+         *
+         * @return the current size
+         */
+        public int size() {
+            return base.size() + appended.size();
+        }
+
+        /**
+         * Builds the list. The builder can keep being used afterwards.
+         *
+         * @return a PersistentList with the content of this builder
+         */
+        public PersistentList<E> build() {
+            if (base.isEmpty()) {
+                base = fromArray(appended.toArray());
+            } else {
+                for (E element : appended) {
+                    base = base.plus(element);
+                }
+            }
+            appended.clear();
+            return base;
+        }
+    }
+}
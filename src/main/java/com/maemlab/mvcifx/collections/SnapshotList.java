@@ -0,0 +1,178 @@
+package com.maemlab.mvcifx.collections;
+
+import javafx.collections.ObservableListBase;
+
+import java.util.Objects;
+
+/**
+ * A read-only {@link javafx.collections.ObservableList} view over successive versions of a {@link PersistentList}.
+ *
+ * <p>Worker threads build new versions of a {@link PersistentList} and hand them over to the JavaFX Application Thread,
+ * where {@link #setSnapshot(PersistentList)} publishes them. Instead of the O(n) copy and the full replace event of
+ * {@code setAll}, the view turns the difference between the previous and the next version into precise change events:
+ * <ul>
+ *   <li>Subtrees shared by the two versions are skipped by identity, so an update of k elements costs
+ *       O(k log n) and is reported as k single-element replacements</li>
+ *   <li>Appends and removals at the end are reported as a single add or remove event</li>
+ *   <li>Unrelated versions are compared element by element, and only the range between the common prefix
+ *       and the common suffix is reported as replaced</li>
+ * </ul>
+ *
+ * <p>The view can be set directly as the items of a {@code TableView} or {@code ListView}.
+ * All the {@link java.util.List} mutators throw {@link UnsupportedOperationException}: the content only changes through
+ * {@link #setSnapshot(PersistentList)}, which must be called on the JavaFX Application Thread.
+ *
+ * @param <E> The type of the elements
+ *
+ * @see PersistentList
+ */
+public class SnapshotList<E> extends ObservableListBase<E> {
+    private PersistentList<E> snapshot;
+
+    /**
+     * Creates a new, empty view.
+     */
+    public SnapshotList() {
+        this(PersistentList.empty());
+    }
+
+    /**
+     * Creates a new view over the specified version.
+     *
+     * @param snapshot The initial version. Must not be null.
+     * @throws IllegalArgumentException if the snapshot is null
+     */
+    public SnapshotList(PersistentList<E> snapshot) {
+        if (snapshot == null) {
+            throw new IllegalArgumentException("Snapshot must not be null");
+        }
+        this.snapshot = snapshot;
+    }
+
+    @Override
+    public E get(int index) {
+        return snapshot.get(index);
+    }
+
+    @Override
+    public int size() {
+        return snapshot.size();
+    }
+
+    /**
+     * Gets the version currently exposed by this view.
+     * @return the current PersistentList
+     */
+    public PersistentList<E> getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Publishes a new version and fires the change events describing the difference with the previous one.
+     *
+     * @param next The new version. Must not be null.
+     * @throws IllegalArgumentException if the snapshot is null
+     */
+    public void setSnapshot(PersistentList<E> next) {
+        if (next == null) {
+            throw new IllegalArgumentException("Snapshot must not be null");
+        }
+
+        var previous = snapshot;
+        if (previous == next) {
+            return;
+        }
+        snapshot = next;
+
+        beginChange();
+        if (previous.size() == next.size()) {
+            if (previous.shift == next.shift) {
+                reportSets(previous.root, next.root, next.shift, 0);
+            } else {
+                reportReplacedRange(previous, next, 0);
+            }
+        } else {
+            reportReplacedRange(previous, next, commonPrefix(previous, next));
+        }
+        endChange();
+    }
+
+    private void reportSets(Object[] before, Object[] after, int level, int offset) {
+        if (before == after) {
+            return;
+        }
+        for (int slot = 0; slot < after.length; slot++) {
+            int index = offset + (slot << level);
+            if (level == 0) {
+                if (!Objects.equals(before[slot], after[slot])) {
+                    @SuppressWarnings("unchecked")
+                    var removed = (E) before[slot];
+                    nextSet(index, removed);
+                }
+            } else {
+                reportSets((Object[]) before[slot], (Object[]) after[slot], level - PersistentList.BITS, index);
+            }
+        }
+    }
+
+    private void reportReplacedRange(PersistentList<E> previous, PersistentList<E> next, int prefix) {
+        int oldSize = previous.size();
+        int newSize = next.size();
+        int suffix = 0;
+        int maxSuffix = Math.min(oldSize, newSize) - prefix;
+        while (suffix < maxSuffix && Objects.equals(previous.get(oldSize - 1 - suffix), next.get(newSize - 1 - suffix))) {
+            suffix++;
+        }
+
+        int removedTo = oldSize - suffix;
+        int addedTo = newSize - suffix;
+        if (prefix == removedTo) {
+            nextAdd(prefix, addedTo);
+        } else if (prefix == addedTo) {
+            nextRemove(prefix, previous.subList(prefix, removedTo));
+        } else {
+            nextReplace(prefix, addedTo, previous.subList(prefix, removedTo));
+        }
+    }
+
+    private static int commonPrefix(PersistentList<?> a, PersistentList<?> b) {
+        int limit = Math.min(a.size(), b.size());
+        if (limit == 0) {
+            return 0;
+        }
+
+        // the content of the shorter trie is laid out like the leftmost subtree of the taller one
+        var rootA = a.root;
+        var rootB = b.root;
+        for (int level = a.shift; level > b.shift; level -= PersistentList.BITS) {
+            rootA = (Object[]) rootA[0];
+        }
+        for (int level = b.shift; level > a.shift; level -= PersistentList.BITS) {
+            rootB = (Object[]) rootB[0];
+        }
+
+        int mismatch = mismatch(rootA, rootB, Math.min(a.shift, b.shift));
+        return mismatch < 0 ? limit : Math.min(mismatch, limit);
+    }
+
+    private static int mismatch(Object[] a, Object[] b, int level) {
+        if (a == b) {
+            return -1;
+        }
+
+        int common = Math.min(a.length, b.length);
+        for (int slot = 0; slot < common; slot++) {
+            if (level == 0) {
+                if (!Objects.equals(a[slot], b[slot])) {
+                    return slot;
+                }
+            } else {
+                int nested = mismatch((Object[]) a[slot], (Object[]) b[slot], level - PersistentList.BITS);
+                if (nested >= 0) {
+                    return (slot << level) + nested;
+                }
+            }
+        }
+        return a.length == b.length ? -1 : common << level;
+    }
+}
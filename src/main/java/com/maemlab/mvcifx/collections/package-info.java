@@ -0,0 +1,16 @@
+/**
+ * Provides collection utilities for MVCI Models.
+ *
+ * <p>This package contains helpers that work on the observable collections held by Models:
+ * <ul>
+ *   <li>{@link com.maemlab.mvcifx.collections.ListAggregate}: Maintains count, sum, min, max and average
+ *   over a Model's list incrementally, exposing them as read-only properties
+ *   <li>{@link com.maemlab.mvcifx.collections.PersistentList}: An immutable, structurally shared list that worker threads
+ *   can build and hand to the JavaFX Application Thread without copying
+ *   <li>{@link com.maemlab.mvcifx.collections.SnapshotList}: An observable view over successive versions of a
+ *   {@code PersistentList}, that turns the difference between two versions into precise change events
+ * </ul>
+ *
+ * @see com.maemlab.mvcifx.mvci
+ */
+package com.maemlab.mvcifx.collections;
@@ -0,0 +1,43 @@
+package com.maemlab.mvcifx.exception;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An {@link MVCIException} reporting the items of a batched write that failed, each with its own cause.
+ * The first failure is used as the cause of the exception.
+ *
+ * @see com.maemlab.mvcifx.mvci.statetracking.WriteBehindQueue
+ */
+public class BatchWriteException extends MVCIException {
+    private final transient Map<Object, Throwable> failures;
+
+    /**
+     * Constructs a new exception reporting the specified failures.
+     *
+     * @param failures the causes of the failed items, by item key. Must not be null nor empty.
+     * @throws IllegalArgumentException if failures is null or empty
+     */
+    public BatchWriteException(Map<?, ? extends Throwable> failures) {
+        super(message(failures), failures.values().iterator().next());
+        this.failures = Collections.unmodifiableMap(new LinkedHashMap<>(failures));
+    }
+
+    private static String message(Map<?, ? extends Throwable> failures) {
+        if (failures == null || failures.isEmpty()) {
+            throw new IllegalArgumentException("Failures must not be null nor empty");
+        }
+        return failures.size() == 1
+                ? "Write failed for " + failures.keySet().iterator().next()
+                : "Write failed for " + failures.size() + " items";
+    }
+
+    /**
+     * Gets the causes of the failed items.
+     * @return an unmodifiable map of the causes, by item key
+     */
+    public Map<Object, Throwable> getFailures() {
+        return failures;
+    }
+}
@@ -0,0 +1,29 @@
+package com.maemlab.mvcifx.exception;
+
+/**
+ * A {@link TransientException} reporting that a lookup was rejected, or shed in favor of a more urgent one, because
+ * the queue of its data source was full. The data source was not called: the lookup can be run again later.
+ *
+ * @see com.maemlab.mvcifx.lookup.LookupScheduler#setBulkhead(String, int, int)
+ */
+public class BulkheadFullException extends TransientException {
+    private final String dataSource;
+
+    /**
+     * Constructs a new exception for the specified data source.
+     *
+     * @param dataSource the identifier of the data source
+     */
+    public BulkheadFullException(String dataSource) {
+        super("Too many pending lookups for data source: " + dataSource);
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Gets the data source whose queue was full.
+     * @return the identifier of the data source
+     */
+    public String getDataSource() {
+        return dataSource;
+    }
+}
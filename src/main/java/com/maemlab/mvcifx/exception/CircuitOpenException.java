@@ -0,0 +1,29 @@
+package com.maemlab.mvcifx.exception;
+
+/**
+ * An {@link MVCIException} reporting that an operation was rejected without reaching its data source,
+ * because the {@link com.maemlab.mvcifx.lookup.CircuitBreaker} of the data source is open.
+ *
+ * @see com.maemlab.mvcifx.lookup.CircuitBreaker
+ */
+public class CircuitOpenException extends MVCIException {
+    private final String dataSource;
+
+    /**
+     * Constructs a new exception for the specified data source.
+     *
+     * @param dataSource the identifier of the data source
+     */
+    public CircuitOpenException(String dataSource) {
+        super("Data source unavailable: " + dataSource);
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Gets the data source whose circuit is open.
+     * @return the identifier of the data source
+     */
+    public String getDataSource() {
+        return dataSource;
+    }
+}
@@ -0,0 +1,63 @@
+package com.maemlab.mvcifx.exception;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * An {@link MVCIException} summarizing several errors raised in a short time, e.g. when a backend goes down and all
+ * the pending lookups fail. Identical errors are reported once, with the number of times they were raised.
+ * The first error is used as the cause of the exception.
+ *
+ * @see com.maemlab.mvcifx.mvci.statetracking.ErrorChannel
+ */
+public class CoalescedErrorException extends MVCIException {
+    private final transient Map<Throwable, Integer> errors;
+    private final int count;
+
+    /**
+     * Constructs a new exception summarizing the specified errors.
+     *
+     * @param errors the distinct errors, each with the number of times it was raised. Must not be null nor empty.
+     * @param others the number of errors raised that are not part of the distinct errors
+     * @throws IllegalArgumentException if errors is null or empty
+     */
+    public CoalescedErrorException(Map<? extends Throwable, Integer> errors, int others) {
+        super(message(errors, others), errors.keySet().iterator().next());
+        this.errors = Collections.unmodifiableMap(new LinkedHashMap<>(errors));
+        this.count = errors.values().stream().mapToInt(Integer::intValue).sum() + others;
+    }
+
+    private static String message(Map<? extends Throwable, Integer> errors, int others) {
+        if (errors == null || errors.isEmpty()) {
+            throw new IllegalArgumentException("Errors must not be null nor empty");
+        }
+        var total = errors.values().stream().mapToInt(Integer::intValue).sum() + others;
+        var details = errors.entrySet().stream()
+                .map(entry -> describe(entry.getKey()) + (entry.getValue() > 1 ? " (x" + entry.getValue() + ")" : ""))
+                .collect(Collectors.joining("\n"));
+        return total + " errors occurred:\n" + details + (others > 0 ? "\n" + others + " other errors" : "");
+    }
+
+    private static String describe(Throwable error) {
+        var message = error.getMessage();
+        return message == null || message.isEmpty() ? error.getClass().getSimpleName() : message;
+    }
+
+    /**
+     * Gets the distinct errors.
+     * @return an unmodifiable map of the distinct errors, with the number of times each was raised
+     */
+    public Map<Throwable, Integer> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Gets the total number of errors summarized by this exception.
+     * @return the number of errors
+     */
+    public int getCount() {
+        return count;
+    }
+}
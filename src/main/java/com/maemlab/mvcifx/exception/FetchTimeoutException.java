@@ -0,0 +1,37 @@
+package com.maemlab.mvcifx.exception;
+
+/**
+ * A {@link TransientException} reporting that the data source did not answer in time.
+ * Timeouts are retried like other transient failures, and count as failures of the data source.
+ *
+ * @see com.maemlab.mvcifx.lookup.RetryPolicy
+ */
+public class FetchTimeoutException extends TransientException {
+    /**
+     * Constructs a new timeout exception with the specified detail message.
+     *
+     * @param message the detail message
+     */
+    public FetchTimeoutException(String message) {
+        super(message);
+    }
+
+    /**
+     * Constructs a new timeout exception with the specified detail message and cause.
+     *
+     * @param message the detail message
+     * @param err the cause. A {@code null} value is permitted and indicates that the cause is nonexistent or unknown.
+     */
+    public FetchTimeoutException(String message, Throwable err) {
+        super(message, err);
+    }
+
+    /**
+     * Constructs a new timeout exception with an empty message and the specified cause.
+     *
+     * @param e the cause. A {@code null} value is permitted and indicates that the cause is nonexistent or unknown.
+     */
+    public FetchTimeoutException(Exception e) {
+        super(e);
+    }
+}
@@ -0,0 +1,40 @@
+package com.maemlab.mvcifx.exception;
+
+/**
+ * An {@link MVCIException} reporting a failure that will happen again if the operation is retried as is,
+ * e.g. invalid parameters, a missing entity or a denied access.
+ *
+ * <p>Permanent failures are never retried. Since the data source answered, they do not count as failures of
+ * the data source for the {@link com.maemlab.mvcifx.lookup.CircuitBreaker}.
+ *
+ * @see TransientException
+ */
+public class PermanentException extends MVCIException {
+    /**
+     * Constructs a new permanent exception with the specified detail message.
+     *
+     * @param message the detail message
+     */
+    public PermanentException(String message) {
+        super(message);
+    }
+
+    /**
+     * Constructs a new permanent exception with the specified detail message and cause.
+     *
+     * @param message the detail message
+     * @param err the cause. A {@code null} value is permitted and indicates that the cause is nonexistent or unknown.
+     */
+    public PermanentException(String message, Throwable err) {
+        super(message, err);
+    }
+
+    /**
+     * Constructs a new permanent exception with an empty message and the specified cause.
+     *
+     * @param e the cause. A {@code null} value is permitted and indicates that the cause is nonexistent or unknown.
+     */
+    public PermanentException(Exception e) {
+        super(e);
+    }
+}
@@ -0,0 +1,42 @@
+package com.maemlab.mvcifx.exception;
+
+/**
+ * An {@link MVCIException} reporting a failure that may not happen again if the operation is retried,
+ * e.g. a refused connection or a backend temporarily overloaded.
+ *
+ * <p>Transient failures are retried by the {@link com.maemlab.mvcifx.lookup.RetryPolicy} of a
+ * {@link com.maemlab.mvcifx.mvci.base.ResilientInteractor}, and count as failures of its data source for the
+ * {@link com.maemlab.mvcifx.lookup.CircuitBreaker}.
+ *
+ * @see PermanentException
+ * @see FetchTimeoutException
+ */
+public class TransientException extends MVCIException {
+    /**
+     * Constructs a new transient exception with the specified detail message.
+     *
+     * @param message the detail message
+     */
+    public TransientException(String message) {
+        super(message);
+    }
+
+    /**
+     * Constructs a new transient exception with the specified detail message and cause.
+     *
+     * @param message the detail message
+     * @param err the cause. A {@code null} value is permitted and indicates that the cause is nonexistent or unknown.
+     */
+    public TransientException(String message, Throwable err) {
+        super(message, err);
+    }
+
+    /**
+     * Constructs a new transient exception with an empty message and the specified cause.
+     *
+     * @param e the cause. A {@code null} value is permitted and indicates that the cause is nonexistent or unknown.
+     */
+    public TransientException(Exception e) {
+        super(e);
+    }
+}
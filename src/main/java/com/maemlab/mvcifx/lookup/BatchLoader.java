@@ -0,0 +1,208 @@
+package com.maemlab.mvcifx.lookup;
+
+import javafx.application.Platform;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects the individual key requests made by an Interactor within a short window, and loads them
+ * with one batched call to the data source. This removes the N+1 pattern of detail cells and row expansions,
+ * where each visible row makes its own backend call for related data.
+ *
+ * <p>Requests are handled as follows:
+ * <ul>
+ *   <li>Keys requested within the window are deduplicated and passed together to the {@link BatchFunction}</li>
+ *   <li>A batch is dispatched as soon as it reaches the maximum batch size, without waiting for the window to expire</li>
+ *   <li>A window of {@link Duration#ZERO} requested on the JavaFX Application Thread collects the keys requested until
+ *       the end of the current event, e.g. all the cells updated during one layout pass</li>
+ *   <li>Results are cached for the lifetime of the loader, so the same key is loaded only once. Failed keys
+ *       are not cached and are loaded again on the next request. Use {@link #clear(Object)} or {@link #clearAll()}
+ *       to drop stale results, or create a new loader per request</li>
+ * </ul>
+ *
+ * <p>Each caller receives its own future, completed on a background thread. Model updates must therefore be
+ * dispatched to the JavaFX Application Thread:
+ * <pre>{@code
+ * private final BatchLoader<Integer, Album> albums = new BatchLoader<>(dao::getAlbumsByIds);
+ *
+ * public void loadAlbum(NirvanaModel row) {
+ *     albums.load(row.getId()).thenAcceptAsync(row::setAlbum, Platform::runLater);
+ * }
+ * }</pre>
+ *
+ * @param <K> The type of the keys
+ * @param <V> The type of the loaded values
+ */
+public class BatchLoader<K, V> {
+    /**
+     * A function loading the values of a batch of keys with one call to the data source.
+     *
+     * @param <K> The type of the keys
+     * @param <V> The type of the loaded values
+     */
+    @FunctionalInterface
+    public interface BatchFunction<K, V> {
+        /**
+         * Loads the values of the specified keys. This method is called on a background thread.
+         *
+         * @param keys The distinct keys to load, in request order
+         * @return the loaded values by key. Keys missing from the map are completed with {@code null}.
+         * @throws Exception if the batch cannot be loaded. Every key of the batch is completed exceptionally.
+         */
+        Map<K, V> load(Set<K> keys) throws Exception;
+    }
+
+    private static final ScheduledExecutorService SCHEDULER =
+            Executors.newSingleThreadScheduledExecutor(LookupThreads.daemon("mvcifx-batch-scheduler"));
+    private static final Executor LOADERS = Executors.newCachedThreadPool(LookupThreads.daemon("mvcifx-batch-loader"));
+
+    private final BatchFunction<K, V> batchFunction;
+    private final Duration window;
+    private final int maxBatchSize;
+
+    private final Map<K, CompletableFuture<V>> cache = new HashMap<>();
+    private Map<K, CompletableFuture<V>> pending = new LinkedHashMap<>();
+    private ScheduledFuture<?> scheduledDispatch;
+    private boolean dispatchQueued;
+
+    /**
+     * Creates a new loader with a window of 10 milliseconds and a maximum batch size of 100 keys.
+     *
+     * @param batchFunction The function loading a batch of keys. Must not be null.
+     */
+    public BatchLoader(BatchFunction<K, V> batchFunction) {
+        this(batchFunction, Duration.ofMillis(10), 100);
+    }
+
+    /**
+     * Creates a new loader.
+     *
+     * @param batchFunction The function loading a batch of keys. Must not be null.
+     * @param window The time to wait for more keys after the first key of a batch is requested. Must not be null or negative.
+     * @param maxBatchSize The maximum number of keys per batch. Must be positive.
+     * @throws IllegalArgumentException if any parameter is invalid
+     */
+    public BatchLoader(BatchFunction<K, V> batchFunction, Duration window, int maxBatchSize) {
+        if (batchFunction == null || window == null || window.isNegative() || maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Batch function and window must not be null, window must not be negative and max batch size must be positive");
+        }
+
+        this.batchFunction = batchFunction;
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Requests the value of the specified key. The key is loaded with the next batch, unless its value is already cached
+     * or being loaded.
+     *
+     * @param key The key to load
+     * @return a future completed with the loaded value, or {@code null} if the data source returned no value for the key.
+     *         Cancelling the future does not affect other callers requesting the same key.
+     */
+    public synchronized CompletableFuture<V> load(K key) {
+        var cached = cache.get(key);
+        if (cached != null) {
+            return cached.copy();
+        }
+
+        var future = new CompletableFuture<V>();
+        cache.put(key, future);
+        pending.put(key, future);
+
+        if (pending.size() >= maxBatchSize) {
+            dispatch();
+        } else if (scheduledDispatch == null && !dispatchQueued) {
+            scheduleDispatch();
+        }
+        return future.copy();
+    }
+
+    /**
+     * Requests the values of the specified keys.
+     *
+     * @param keys The keys to load
+     * @return a future completed with the loaded values by key
+     */
+    public CompletableFuture<Map<K, V>> loadAll(Collection<? extends K> keys) {
+        var futures = new LinkedHashMap<K, CompletableFuture<V>>();
+        for (K key : keys) {
+            futures.put(key, load(key));
+        }
+        return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> {
+                    var values = new LinkedHashMap<K, V>();
+                    futures.forEach((key, future) -> values.put(key, future.join()));
+                    return values;
+                });
+    }
+
+    private void scheduleDispatch() {
+        if (window.isZero() && Platform.isFxApplicationThread()) {
+            dispatchQueued = true;
+            Platform.runLater(this::dispatch);
+        } else {
+            scheduledDispatch = SCHEDULER.schedule(this::dispatch, window.toNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Dispatches the pending keys immediately, without waiting for the window to expire.
+     */
+    public synchronized void dispatch() {
+        if (scheduledDispatch != null) {
+            scheduledDispatch.cancel(false);
+            scheduledDispatch = null;
+        }
+        dispatchQueued = false;
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        var batch = pending;
+        pending = new LinkedHashMap<>();
+        LOADERS.execute(() -> loadBatch(batch));
+    }
+
+    private void loadBatch(Map<K, CompletableFuture<V>> batch) {
+        try {
+            var values = batchFunction.load(new LinkedHashSet<>(batch.keySet()));
+            batch.forEach((key, future) -> future.complete(values == null ? null : values.get(key)));
+        } catch (Throwable t) {
+            synchronized (this) {
+                batch.forEach(cache::remove);
+            }
+            batch.values().forEach(future -> future.completeExceptionally(t));
+        }
+    }
+
+    /**
+     * Removes the cached value of the specified key, so that the next request loads it again.
+     *
+     * @param key The key to remove from the cache
+     */
+    public synchronized void clear(K key) {
+        if (!pending.containsKey(key)) {
+            cache.remove(key);
+        }
+    }
+
+    /**
+     * Removes all the cached values, so that the next requests load them again.
+     */
+    public synchronized void clearAll() {
+        cache.keySet().retainAll(pending.keySet());
+    }
+}
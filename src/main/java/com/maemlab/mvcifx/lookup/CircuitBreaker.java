@@ -0,0 +1,196 @@
+package com.maemlab.mvcifx.lookup;
+
+import com.maemlab.mvcifx.exception.CircuitOpenException;
+import com.maemlab.mvcifx.exception.PermanentException;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fails fast the calls to a data source while it is unhealthy, instead of piling more load on it.
+ *
+ * <p>The breaker is {@link State#CLOSED} while the data source works: calls go through. After
+ * {@code failureThreshold} consecutive failures, it opens: calls are rejected with a {@link CircuitOpenException}
+ * without reaching the data source. Once {@code openDuration} has elapsed, it is {@link State#HALF_OPEN}: a single
+ * probe call goes through, and closes the breaker if it succeeds, or opens it again if it fails.
+ *
+ * <p>A {@link PermanentException} means that the data source answered: it is not counted as a failure.
+ *
+ * <p>There is usually one breaker per data source, shared by all the controllers using it,
+ * see {@link #forDataSource(String)}. This class is thread-safe.
+ *
+ * @see com.maemlab.mvcifx.mvci.base.ResilientInteractor
+ * @see RetryPolicy
+ */
+public class CircuitBreaker {
+    private static final ConcurrentHashMap<String, CircuitBreaker> BREAKERS = new ConcurrentHashMap<>();
+
+    /**
+     * The states of a breaker.
+     */
+    public enum State {
+        /**
+         * Calls go through.
+         */
+        CLOSED,
+        /**
+         * Calls are rejected.
+         */
+        OPEN,
+        /**
+         * A single probe call goes through.
+         */
+        HALF_OPEN
+    }
+
+    private final String dataSource;
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probing;
+    private long opened;
+    private long rejected;
+
+    /**
+     * Creates a new breaker opening after 5 consecutive failures, for 10 seconds.
+     *
+     * @param dataSource The identifier of the data source, used in error messages
+     * @throws IllegalArgumentException if the data source is null
+     */
+    public CircuitBreaker(String dataSource) {
+        this(dataSource, 5, Duration.ofSeconds(10));
+    }
+
+    /**
+     * Creates a new breaker.
+     *
+     * @param dataSource The identifier of the data source, used in error messages
+     * @param failureThreshold The number of consecutive failures that opens the breaker
+     * @param openDuration The time the breaker stays open before letting a probe call through
+     * @throws IllegalArgumentException if a parameter is null, or if failureThreshold is not positive
+     */
+    public CircuitBreaker(String dataSource, int failureThreshold, Duration openDuration) {
+        if (dataSource == null || openDuration == null) {
+            throw new IllegalArgumentException("Data source and open duration must not be null");
+        }
+        if (failureThreshold <= 0) {
+            throw new IllegalArgumentException("Failure threshold must be positive");
+        }
+
+        this.dataSource = dataSource;
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+    }
+
+    /**
+     * Gets the breaker shared by the callers of a data source, creating it with the default settings if needed.
+     *
+     * @param dataSource The identifier of the data source
+     * @return the breaker of the data source
+     * @throws IllegalArgumentException if the data source is null
+     */
+    public static CircuitBreaker forDataSource(String dataSource) {
+        if (dataSource == null) {
+            throw new IllegalArgumentException("Data source must not be null");
+        }
+        return BREAKERS.computeIfAbsent(dataSource, CircuitBreaker::new);
+    }
+
+    /**
+     * Asks for the permission to call the data source. Each granted permission must be followed by
+     * {@link #recordSuccess()}, {@link #recordFailure(Throwable)} or {@link #recordAbandoned()}.
+     *
+     * @throws CircuitOpenException if the breaker is open, or if a probe call is already in progress
+     */
+    public synchronized void acquire() throws CircuitOpenException {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openDuration.toNanos()) {
+            state = State.HALF_OPEN;
+        }
+        if (state == State.OPEN || (state == State.HALF_OPEN && probing)) {
+            rejected++;
+            throw new CircuitOpenException(dataSource);
+        }
+        if (state == State.HALF_OPEN) {
+            probing = true;
+        }
+    }
+
+    /**
+     * Records a successful call: the breaker is closed.
+     */
+    public synchronized void recordSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        probing = false;
+    }
+
+    /**
+     * Records a failed call. A {@link PermanentException} counts as a success, since the data source answered.
+     *
+     * @param failure The cause of the failure
+     */
+    public synchronized void recordFailure(Throwable failure) {
+        if (failure instanceof PermanentException) {
+            recordSuccess();
+            return;
+        }
+
+        probing = false;
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+            opened++;
+        }
+    }
+
+    /**
+     * Records a call abandoned before its outcome was known, e.g. a cancelled lookup: it counts neither as a success
+     * nor as a failure, and a probe call in progress can be made again.
+     */
+    public synchronized void recordAbandoned() {
+        probing = false;
+    }
+
+    /**
+     * Gets the identifier of the data source.
+     * @return the data source
+     */
+    public String getDataSource() {
+        return dataSource;
+    }
+
+    /**
+     * Gets the current state of the breaker.
+     * @return the state
+     */
+    public synchronized State getState() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openDuration.toNanos()) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    /**
+     * Gets the number of times the breaker opened.
+     * @return the number of openings
+     */
+    public synchronized long getOpened() {
+        return opened;
+    }
+
+    /**
+     * Gets the number of calls rejected while the breaker was open.
+     * @return the number of rejected calls
+     */
+    public synchronized long getRejected() {
+        return rejected;
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreaker{dataSource=" + dataSource + ", state=" + getState() + "}";
+    }
+}
@@ -0,0 +1,144 @@
+package com.maemlab.mvcifx.lookup;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A cheap, non-cryptographic 64-bit content fingerprint, used to detect that a fetch returned
+ * the same data as the one already applied to the Model.
+ *
+ * <p>Values are mixed in order, so the same values in a different order produce a different fingerprint.
+ * Strings, booleans and the numbers of the JDK (including {@link BigDecimal}, regardless of its trailing zeros, and
+ * {@link BigInteger}) are mixed by content; any other object, including other {@code Number} implementations, is
+ * mixed through its {@link Object#hashCode()}, which must therefore be content based.
+ *
+ * <p>Example:
+ * <pre>{@code
+ * long fp = Fingerprint.of(nirvanas, Nirvana::getName, Nirvana::getSurname, Nirvana::getAge);
+ *
+ * long sameFp = new Fingerprint()
+ *         .add("Kurt").add("Cobain").add(27)
+ *         .value();
+ * }</pre>
+ *
+ * @see com.maemlab.mvcifx.mvci.base.FingerprintingInteractor
+ */
+public final class Fingerprint {
+    private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+
+    private long hash = OFFSET_BASIS;
+    private long count;
+
+    /**
+     * Computes the fingerprint of a collection of items, mixing the specified fields of every item.
+     *
+     * @param items The items to fingerprint. Must not be null.
+     * @param fields The functions extracting the fields of an item that are relevant for the UI
+     * @param <T> The type of the items
+     * @return the fingerprint of the items
+     */
+    @SafeVarargs
+    public static <T> long of(Iterable<? extends T> items, Function<? super T, ?>... fields) {
+        var fingerprint = new Fingerprint();
+        for (T item : items) {
+            for (var field : fields) {
+                fingerprint.add(field.apply(item));
+            }
+        }
+        return fingerprint.value();
+    }
+
+    /**
+     * Mixes a value into this fingerprint.
+     *
+     * @param value The value to mix. May be null.
+     * @return this fingerprint
+     */
+    public Fingerprint add(Object value) {
+        if (value instanceof CharSequence text) {
+            return add(text);
+        }
+        if (value instanceof Double || value instanceof Float || value instanceof DoubleAdder
+                || value instanceof DoubleAccumulator) {
+            return add(((Number) value).doubleValue());
+        }
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte
+                || value instanceof AtomicLong || value instanceof AtomicInteger || value instanceof LongAdder
+                || value instanceof LongAccumulator) {
+            return add(((Number) value).longValue());
+        }
+        if (value instanceof BigDecimal decimal) {
+            // 10.5 and 10.50 are the same amount
+            var normalized = decimal.signum() == 0 ? BigDecimal.ZERO : decimal.stripTrailingZeros();
+            return add(normalized.unscaledValue().toByteArray()).add(normalized.scale());
+        }
+        if (value instanceof BigInteger integer) {
+            return add(integer.toByteArray());
+        }
+        if (value instanceof Boolean bool) {
+            return add(bool.booleanValue());
+        }
+        return add(value == null ? 0x9e3779b97f4a7c15L : value.hashCode());
+    }
+
+    /**
+     * Mixes a character sequence into this fingerprint, character by character.
+     *
+     * @param text The text to mix. May be null.
+     * @return this fingerprint
+     */
+    public Fingerprint add(CharSequence text) {
+        if (text == null) {
+            return add((Object) null);
+        }
+        for (int i = 0; i < text.length(); i++) {
+            hash = (hash ^ text.charAt(i)) * PRIME;
+        }
+        return add(text.length());
+    }
+
+    private Fingerprint add(byte[] bytes) {
+        for (byte b : bytes) {
+            hash = (hash ^ (b & 0xff)) * PRIME;
+        }
+        return add(bytes.length);
+    }
+
+    public Fingerprint add(long value) {
+        hash = (hash ^ value) * PRIME;
+        hash ^= hash >>> 29;
+        count++;
+        return this;
+    }
+
+    public Fingerprint add(double value) {
+        return add(Double.doubleToLongBits(value));
+    }
+
+    public Fingerprint add(boolean value) {
+        return add(value ? 1L : 2L);
+    }
+
+    /**
+     * Returns the fingerprint of the values mixed so far.
+     * @return a 64-bit fingerprint
+     */
+    public long value() {
+        // final avalanche (MurmurHash3 fmix64), including the number of values
+        long h = hash ^ count;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
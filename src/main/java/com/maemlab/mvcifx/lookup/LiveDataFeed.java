@@ -0,0 +1,267 @@
+package com.maemlab.mvcifx.lookup;
+
+import com.maemlab.mvcifx.mvci.base.LiveDataInteractor;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.beans.value.ObservableBooleanValue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Feeds the updates pushed by a local event source to a {@link LiveDataInteractor}, conflated per row key between two
+ * pulses: however fast the source ticks, each row is written at most once per frame.
+ *
+ * <p>Updates are offered from any thread through {@link #offer(Object)}, or taken from a queue by a daemon reader
+ * thread started by {@link #connect(BlockingQueue)}. The update of a row replaces (or is merged with, see
+ * {@link LiveDataInteractor#merge(Object, Object)}) its pending update; at the next pulse, the pending updates are passed
+ * at once to {@link LiveDataInteractor#updateModelWithLiveUpdates(java.util.Collection)} on the JavaFX Application
+ * Thread, in the order their rows first ticked.
+ *
+ * <p>When an active condition is set (e.g.: the {@code showingProperty()} of a state-tracking controller), updates are
+ * only conflated while it is false, and applied once when it turns true.
+ *
+ * <p>Example:
+ * <pre>{@code
+ * var feed = new LiveDataFeed<>(interactor);
+ * feed.setOnError(model::setError);
+ * feed.connect(quoteQueue);
+ * // ...
+ * feed.close();
+ * }</pre>
+ * Updates can be offered from any thread; the other methods must be called on the JavaFX Application Thread.
+ *
+ * @param <K> The type of the row keys
+ * @param <U> The type of the updates
+ *
+ * @see LiveDataInteractor
+ */
+public class LiveDataFeed<K, U> {
+    private static final ThreadFactory READERS = LookupThreads.daemon("mvcifx-live-feed");
+
+    private final LiveDataInteractor<?, K, U> interactor;
+    private final Object lock = new Object();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            stop();
+            scheduled.set(false);
+            drain();
+        }
+    };
+    private final InvalidationListener activeListener = obs -> schedule();
+    private final List<Thread> readers = new ArrayList<>();
+    private Map<K, U> pending = new LinkedHashMap<>();
+    private ObservableBooleanValue active;
+    private Consumer<? super Throwable> onError;
+    private volatile boolean closed;
+    private long received;
+    private long applied;
+
+    /**
+     * Creates a new feed.
+     *
+     * @param interactor The Interactor applying the updates to the Model
+     * @throws IllegalArgumentException if the interactor is null
+     */
+    public LiveDataFeed(LiveDataInteractor<?, K, U> interactor) {
+        if (interactor == null) {
+            throw new IllegalArgumentException("Interactor must not be null");
+        }
+        this.interactor = interactor;
+    }
+
+    /**
+     * Offers an update, conflated with the pending update of its row. This method can be called from any thread.
+     * Updates offered after {@link #close()} are ignored.
+     *
+     * @param update The update
+     * @throws IllegalArgumentException if the update or its key is null
+     */
+    public void offer(U update) {
+        if (update == null) {
+            throw new IllegalArgumentException("Update must not be null");
+        }
+        if (closed) {
+            return;
+        }
+
+        var key = interactor.keyOf(update);
+        if (key == null) {
+            throw new IllegalArgumentException("Key of update must not be null: " + update);
+        }
+        synchronized (lock) {
+            pending.merge(key, update, interactor::merge);
+            received++;
+        }
+        schedule();
+    }
+
+    /**
+     * Starts a daemon thread feeding the updates taken from a queue, until {@link #close()} is called. Failures of
+     * {@link LiveDataInteractor#keyOf(Object)} and {@link LiveDataInteractor#merge(Object, Object)} are reported to
+     * the error handler, and the faulty update is skipped.
+     *
+     * @param queue The queue the event source puts its updates into
+     * @throws IllegalArgumentException if the queue is null
+     * @throws IllegalStateException if the feed is closed
+     */
+    public void connect(BlockingQueue<? extends U> queue) {
+        if (queue == null) {
+            throw new IllegalArgumentException("Queue must not be null");
+        }
+        if (closed) {
+            throw new IllegalStateException("Feed is closed");
+        }
+
+        var reader = READERS.newThread(() -> read(queue));
+        readers.add(reader);
+        reader.start();
+    }
+
+    private void read(BlockingQueue<? extends U> queue) {
+        var batch = new ArrayList<U>();
+        while (!closed) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch);
+            for (var update : batch) {
+                try {
+                    offer(update);
+                } catch (RuntimeException e) {
+                    Platform.runLater(() -> reportError(e));
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Sets the condition under which updates are applied to the Model, typically the showing state of the
+     * controller's view. While the condition is false, updates are only conflated.
+     *
+     * @param active The condition, or null to always apply updates at the next pulse
+     */
+    public void setActive(ObservableBooleanValue active) {
+        if (this.active != null) {
+            this.active.removeListener(activeListener);
+        }
+        this.active = active;
+        if (active != null) {
+            active.addListener(activeListener);
+        }
+        schedule();
+    }
+
+    /**
+     * Sets the handler of the failures of the feed: updates rejected by the Interactor, and failures of
+     * {@link LiveDataInteractor#updateModelWithLiveUpdates(java.util.Collection)}. It is called on the JavaFX
+     * Application Thread. Without a handler, failures are passed to the uncaught exception handler of the thread.
+     *
+     * @param onError The handler, e.g. {@code model::setError}. May be null.
+     */
+    public void setOnError(Consumer<? super Throwable> onError) {
+        this.onError = onError;
+    }
+
+    private void reportError(RuntimeException failure) {
+        if (onError == null) {
+            var thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, failure);
+        } else {
+            onError.accept(failure);
+        }
+    }
+
+    private void schedule() {
+        if (!closed && scheduled.compareAndSet(false, true)) {
+            Platform.runLater(timer::start);
+        }
+    }
+
+    private void drain() {
+        if (active != null && !active.get()) {
+            return; // drained again when the condition turns true
+        }
+
+        Map<K, U> updates;
+        synchronized (lock) {
+            if (closed || pending.isEmpty()) {
+                return;
+            }
+            updates = pending;
+            pending = new LinkedHashMap<>();
+            applied += updates.size();
+        }
+
+        try {
+            interactor.updateModelWithLiveUpdates(updates.values());
+        } catch (RuntimeException e) {
+            reportError(e);
+        }
+    }
+
+    /**
+     * Stops the feed: the reader threads are interrupted, the pending updates are dropped, and updates offered
+     * afterwards are ignored.
+     */
+    public void close() {
+        closed = true;
+        readers.forEach(Thread::interrupt);
+        readers.clear();
+        synchronized (lock) {
+            pending = new LinkedHashMap<>();
+        }
+        timer.stop();
+        setActive(null);
+    }
+
+    /**
+     * Tells whether the feed is closed.
+     * @return true if the feed is closed
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Gets the number of updates offered to the feed.
+     * @return the number of received updates
+     */
+    public long getReceived() {
+        synchronized (lock) {
+            return received;
+        }
+    }
+
+    /**
+     * Gets the number of updates applied to the Model, after conflation.
+     * @return the number of applied updates
+     */
+    public long getApplied() {
+        synchronized (lock) {
+            return applied;
+        }
+    }
+
+    /**
+     * Gets the number of rows with an update waiting for the next pulse.
+     * @return the number of pending updates
+     */
+    public int getPending() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.maemlab.mvcifx.lookup;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters describing the lookups run by a controller through its {@link LookupRunner}.
+ *
+ * <p>Counters are updated by the framework and can be read from any thread.
+ *
+ * @see LookupRunner
+ */
+public class LookupMetrics {
+    private final AtomicLong started = new AtomicLong();
+    private final AtomicLong applied = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong fingerprintHits = new AtomicLong();
+    private final AtomicLong fingerprintMisses = new AtomicLong();
+    private final AtomicLong lastFetchNanos = new AtomicLong();
+    private final AtomicLong snapshotsRestored = new AtomicLong();
+    private final AtomicLong snapshotsSaved = new AtomicLong();
+    private final AtomicLong snapshotFailures = new AtomicLong();
+    private final AtomicLong deferred = new AtomicLong();
+    private final AtomicLong conflated = new AtomicLong();
+    private final AtomicLong cancelled = new AtomicLong();
+    private final AtomicLong prefetches = new AtomicLong();
+    private final AtomicLong prefetchHits = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile CircuitBreaker circuitBreaker;
+
+    void recordStarted() {
+        started.incrementAndGet();
+    }
+
+    void recordFetchTime(long nanos) {
+        lastFetchNanos.set(nanos);
+    }
+
+    void recordApplied() {
+        applied.incrementAndGet();
+    }
+
+    void recordFailed() {
+        failed.incrementAndGet();
+    }
+
+    void recordFingerprintHit() {
+        fingerprintHits.incrementAndGet();
+    }
+
+    void recordFingerprintMiss() {
+        fingerprintMisses.incrementAndGet();
+    }
+
+    void recordSnapshotRestored() {
+        snapshotsRestored.incrementAndGet();
+    }
+
+    void recordSnapshotSaved() {
+        snapshotsSaved.incrementAndGet();
+    }
+
+    void recordSnapshotFailure() {
+        snapshotFailures.incrementAndGet();
+    }
+
+    void recordDeferred() {
+        deferred.incrementAndGet();
+    }
+
+    void recordConflated() {
+        conflated.incrementAndGet();
+    }
+
+    void recordCancelled() {
+        cancelled.incrementAndGet();
+    }
+
+    void recordPrefetch() {
+        prefetches.incrementAndGet();
+    }
+
+    void recordPrefetchHit() {
+        prefetchHits.incrementAndGet();
+    }
+
+    void recordRetry() {
+        retries.incrementAndGet();
+    }
+
+    void recordRejected() {
+        rejected.incrementAndGet();
+    }
+
+    void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    /**
+     * @return the number of lookups started
+     */
+    public long getStarted() {
+        return started.get();
+    }
+
+    /**
+     * @return the number of fetch results applied to the Model
+     */
+    public long getApplied() {
+        return applied.get();
+    }
+
+    /**
+     * @return the number of lookups that failed
+     */
+    public long getFailed() {
+        return failed.get();
+    }
+
+    /**
+     * @return the number of fetch results whose fingerprint matched the last applied one, and whose apply was skipped
+     */
+    public long getFingerprintHits() {
+        return fingerprintHits.get();
+    }
+
+    /**
+     * @return the number of fetch results whose fingerprint differed from the last applied one
+     */
+    public long getFingerprintMisses() {
+        return fingerprintMisses.get();
+    }
+
+    /**
+     * @return the time spent in the last completed fetch
+     */
+    public Duration getLastFetchDuration() {
+        return Duration.ofNanos(lastFetchNanos.get());
+    }
+
+    /**
+     * @return the number of snapshots restored into the Model
+     */
+    public long getSnapshotsRestored() {
+        return snapshotsRestored.get();
+    }
+
+    /**
+     * @return the number of snapshots saved to disk
+     */
+    public long getSnapshotsSaved() {
+        return snapshotsSaved.get();
+    }
+
+    /**
+     * @return the number of snapshots that could not be read or written
+     */
+    public long getSnapshotFailures() {
+        return snapshotFailures.get();
+    }
+
+    /**
+     * @return the number of fetch results whose apply was deferred because the runner was inactive
+     */
+    public long getDeferred() {
+        return deferred.get();
+    }
+
+    /**
+     * @return the number of deferred fetch results superseded by a newer one before being applied
+     */
+    public long getConflated() {
+        return conflated.get();
+    }
+
+    /**
+     * @return the number of lookups cancelled before their result was applied
+     */
+    public long getCancelled() {
+        return cancelled.get();
+    }
+
+    /**
+     * @return the number of prefetches started
+     */
+    public long getPrefetches() {
+        return prefetches.get();
+    }
+
+    /**
+     * @return the number of lookups served by a prefetch, either still in progress or completed within its max age
+     */
+    public long getPrefetchHits() {
+        return prefetchHits.get();
+    }
+
+    /**
+     * @return the number of fetches retried after a transient failure
+     */
+    public long getRetries() {
+        return retries.get();
+    }
+
+    /**
+     * @return the number of lookups rejected or shed because the bulkhead of their data source was full
+     */
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    /**
+     * @return the state of the circuit breaker of the data source, or null if the Interactor is not resilient
+     */
+    public CircuitBreaker.State getCircuitState() {
+        var breaker = circuitBreaker;
+        return breaker == null ? null : breaker.getState();
+    }
+
+    /**
+     * @return the number of fetches rejected by the circuit breaker of the data source, across all its callers
+     */
+    public long getCircuitRejections() {
+        var breaker = circuitBreaker;
+        return breaker == null ? 0 : breaker.getRejected();
+    }
+
+    @Override
+    public String toString() {
+        return "LookupMetrics{started=" + getStarted() +
+                ", applied=" + getApplied() +
+                ", failed=" + getFailed() +
+                ", cancelled=" + getCancelled() +
+                ", retries=" + getRetries() +
+                ", rejected=" + getRejected() +
+                ", circuit=" + getCircuitState() +
+                ", prefetches=" + getPrefetches() +
+                ", prefetchHits=" + getPrefetchHits() +
+                ", fingerprintHits=" + getFingerprintHits() +
+                ", fingerprintMisses=" + getFingerprintMisses() +
+                ", snapshotsRestored=" + getSnapshotsRestored() +
+                ", snapshotsSaved=" + getSnapshotsSaved() +
+                ", snapshotFailures=" + getSnapshotFailures() +
+                ", deferred=" + getDeferred() +
+                ", conflated=" + getConflated() +
+                ", lastFetch=" + getLastFetchDuration().toMillis() + "ms}";
+    }
+}
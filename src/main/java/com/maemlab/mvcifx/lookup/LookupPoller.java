@@ -0,0 +1,161 @@
+package com.maemlab.mvcifx.lookup;
+
+import com.maemlab.mvcifx.mvci.base.DataSourceController;
+import javafx.animation.PauseTransition;
+import javafx.beans.InvalidationListener;
+import javafx.beans.value.ObservableBooleanValue;
+import javafx.util.Duration;
+
+/**
+ * Periodically runs the lookup of a {@link DataSourceController}, and slows down while its view is hidden.
+ *
+ * <p>Polls are scheduled on the JavaFX Application Thread, every interval from the start of the previous one.
+ * When a showing condition is set (e.g.: the {@code showingProperty()} of a state-tracking controller), polls use
+ * the hidden interval while it is false, or stop entirely if no hidden interval is set; when the view is shown again,
+ * a poll runs immediately so that the user never sees data older than necessary.
+ *
+ * <p>A poll is skipped while the previous lookup is still running (see {@link DataSourceController#isLookupRunning()}),
+ * so that lookups slower than the interval do not pile up in the {@link LookupScheduler}.
+ *
+ * <p>Example:
+ * <pre>{@code
+ * var poller = new LookupPoller(controller, Duration.seconds(5));
+ * poller.setShowing(controller.showingProperty());
+ * poller.setHiddenInterval(Duration.minutes(1));
+ * poller.start();
+ * }</pre>
+ * A poller must be stopped once its controller is disposed; state-tracking controllers create pollers stopped along
+ * with their other in-flight work through {@code openPoller(Duration)}.
+ * This class must be used on the JavaFX Application Thread.
+ *
+ * @see DataSourceController#lookup(Runnable)
+ */
+public class LookupPoller {
+    private final DataSourceController controller;
+    private final Duration interval;
+    private final PauseTransition timer = new PauseTransition();
+    private final InvalidationListener showingListener = obs -> onShowingChanged();
+    private Duration hiddenInterval;
+    private ObservableBooleanValue showing;
+    private boolean started;
+    private boolean wasShowing = true;
+    private long skipped;
+
+    /**
+     * Creates a new poller. Polling starts with {@link #start()}.
+     *
+     * @param controller The controller whose lookup is run
+     * @param interval The interval between two polls while the view is showing
+     * @throws IllegalArgumentException if a parameter is null
+     */
+    public LookupPoller(DataSourceController controller, Duration interval) {
+        if (controller == null || interval == null) {
+            throw new IllegalArgumentException("Controller and interval must not be null");
+        }
+
+        this.controller = controller;
+        this.interval = interval;
+        timer.setOnFinished(evt -> poll());
+    }
+
+    /**
+     * Sets the interval between two polls while the view is hidden.
+     *
+     * @param hiddenInterval The interval, or null to stop polling while the view is hidden
+     */
+    public void setHiddenInterval(Duration hiddenInterval) {
+        this.hiddenInterval = hiddenInterval;
+        if (started) {
+            schedule();
+        }
+    }
+
+    /**
+     * Sets the condition telling whether the view is showing.
+     *
+     * @param showing The condition, or null to always poll at the showing interval
+     */
+    public void setShowing(ObservableBooleanValue showing) {
+        if (this.showing != null) {
+            this.showing.removeListener(showingListener);
+        }
+        this.showing = showing;
+        if (showing != null) {
+            showing.addListener(showingListener);
+        }
+        wasShowing = isShowing();
+        if (started) {
+            schedule();
+        }
+    }
+
+    /**
+     * Runs a poll now, then polls periodically.
+     */
+    public void start() {
+        started = true;
+        poll();
+    }
+
+    /**
+     * Stops polling. A lookup in progress is not cancelled.
+     */
+    public void stop() {
+        started = false;
+        timer.stop();
+    }
+
+    /**
+     * Tells whether the poller is started.
+     * @return true if polling is started
+     */
+    public boolean isStarted() {
+        return started;
+    }
+
+    private boolean isShowing() {
+        return showing == null || showing.get();
+    }
+
+    private void onShowingChanged() {
+        var nowShowing = isShowing();
+        if (nowShowing == wasShowing) {
+            return;
+        }
+        wasShowing = nowShowing;
+        if (!started) {
+            return;
+        }
+        if (nowShowing) {
+            poll();
+        } else {
+            schedule();
+        }
+    }
+
+    private void poll() {
+        schedule();
+        if (controller.isLookupRunning()) {
+            skipped++;
+            return;
+        }
+        controller.lookup(() -> {});
+    }
+
+    /**
+     * Gets the number of polls skipped because the previous lookup was still running.
+     * @return the number of skipped polls
+     */
+    public long getSkipped() {
+        return skipped;
+    }
+
+    private void schedule() {
+        timer.stop();
+        var delay = isShowing() ? interval : hiddenInterval;
+        if (delay != null) {
+            timer.setDuration(delay);
+            timer.playFromStart();
+        }
+    }
+}
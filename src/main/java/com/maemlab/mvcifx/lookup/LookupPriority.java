@@ -0,0 +1,34 @@
+package com.maemlab.mvcifx.lookup;
+
+/**
+ * The priority of a lookup in the {@link LookupScheduler}, derived from what the user is looking at.
+ * Constants are declared from the highest priority to the lowest.
+ *
+ * @see LookupScheduler
+ */
+public enum LookupPriority {
+    /**
+     * The lookup of the screen that has the focus.
+     */
+    FOCUSED,
+    /**
+     * The lookup of a screen that is showing, but does not have the focus.
+     */
+    VISIBLE,
+    /**
+     * The lookup of a screen that is not showing. It can be preempted by higher priority lookups.
+     */
+    HIDDEN,
+    /**
+     * A speculative lookup of a screen the user may show next. It can be preempted by any other lookup.
+     */
+    PREFETCH;
+
+    /**
+     * Tells whether a running lookup of this priority may be cancelled to free its worker for a higher priority lookup.
+     * @return true for {@link #HIDDEN} and {@link #PREFETCH}
+     */
+    public boolean isPreemptible() {
+        return this == HIDDEN || this == PREFETCH;
+    }
+}
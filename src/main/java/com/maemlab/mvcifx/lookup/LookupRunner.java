@@ -0,0 +1,654 @@
+package com.maemlab.mvcifx.lookup;
+
+import com.maemlab.mvcifx.exception.BulkheadFullException;
+import com.maemlab.mvcifx.mvci.Interactor;
+import com.maemlab.mvcifx.mvci.base.FetchContext;
+import com.maemlab.mvcifx.mvci.base.FingerprintingInteractor;
+import com.maemlab.mvcifx.mvci.base.ProgressInteractor;
+import com.maemlab.mvcifx.mvci.base.ResilientInteractor;
+import com.maemlab.mvcifx.mvci.base.SnapshotInteractor;
+import com.maemlab.mvcifx.snapshot.SnapshotStore;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.beans.value.ObservableBooleanValue;
+import javafx.beans.value.ObservableValue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Runs the lookups of a controller: {@link Interactor#fetchData()} on a worker thread of a {@link LookupScheduler},
+ * then {@link Interactor#updateModelAfterFetchingData()} on the JavaFX Application Thread.
+ *
+ * <p>Lookups are scheduled with the priority set through {@link #setPriority(ObservableValue)}, {@link LookupPriority#VISIBLE}
+ * by default. When the priority changes, the lookups in progress are boosted or demoted accordingly.
+ *
+ * <p>If the Interactor is a {@link FingerprintingInteractor}, the fingerprint of each fetch result is computed
+ * on the background thread, and the Model update is skipped when it matches the fingerprint of the last
+ * applied result. Hits and misses are counted in the {@link LookupMetrics} of this runner.
+ *
+ * <p>If the Interactor is a {@link ResilientInteractor}, transient fetch failures are retried according to its
+ * {@link RetryPolicy}, through the {@link CircuitBreaker} of its data source, and its lookups run in the bulkhead of
+ * its data source (see {@link LookupScheduler#setBulkhead(String, int, int)}). Retries, rejections and the state of
+ * the breaker are reported in the metrics.
+ *
+ * <p>If the Interactor is a {@link ProgressInteractor}, the progress, message and partial results it reports while
+ * fetching are forwarded to the JavaFX Application Thread at most once per pulse: the progress and the message to the
+ * handler set through {@link #setOnProgress(ProgressHandler)}, and the partial results to the Interactor.
+ *
+ * <p>If the Interactor is a {@link SnapshotInteractor} and snapshots are enabled through
+ * {@link #enableSnapshots(SnapshotStore)}, the last applied result is persisted after each lookup, and restored
+ * into the Model when snapshots are enabled.
+ *
+ * <p>The runner can be made inactive through {@link #setActive(ObservableBooleanValue)}, e.g. while the view of the
+ * controller is hidden: results are then not applied to the Model, but kept until the runner becomes active again.
+ * Only the latest result is kept, so several lookups completed while inactive are applied only once.
+ *
+ * <p>A fetch can be started ahead of time through {@link #prefetch()}, e.g. when the user hovers the menu entry of
+ * the screen: its result is not applied to the Model, but the next lookup takes the fetch over if it is still in
+ * progress, or applies its result if it completed within the max age set through {@link #setPrefetchMaxAge(Duration)}
+ * (typically the gap between hovering an entry and clicking it). Older prefetched results are fetched again.
+ *
+ * <p>Each controller should own its runner, since the last applied fingerprint is tracked per runner:
+ * <pre>{@code
+ * private final LookupRunner lookupRunner = new LookupRunner(interactor);
+ *
+ * @Override
+ * public void lookup(Runnable innerRunnable) {
+ *     lookupRunner.run(innerRunnable, model::setError);
+ * }
+ * }</pre>
+ *
+ * @see LookupMetrics
+ * @see FingerprintingInteractor
+ * @see ResilientInteractor
+ * @see SnapshotInteractor
+ */
+public class LookupRunner {
+    private static final ExecutorService SNAPSHOT_IO =
+            Executors.newSingleThreadExecutor(LookupThreads.daemon("mvcifx-snapshot"));
+
+    private final Interactor<?> interactor;
+    private final LookupMetrics metrics = new LookupMetrics();
+    private boolean fingerprintApplied;
+    private long appliedFingerprint;
+    private boolean resultApplied;
+    private SnapshotStore snapshotStore;
+    private ObservableBooleanValue active;
+    private FetchResult deferredResult;
+    private final InvalidationListener activeListener = obs -> applyDeferred();
+    private LookupScheduler scheduler = LookupScheduler.shared();
+    private ObservableValue<LookupPriority> priority;
+    private final InvalidationListener priorityListener = obs -> updatePriority();
+    private final List<LookupScheduler.Job<FetchResult>> jobs = new ArrayList<>();
+    private LookupScheduler.Job<FetchResult> prefetchJob;
+    private ProgressForwarder prefetchForwarder;
+    private FetchResult prefetchedResult;
+    private long prefetchedAt;
+    private Duration prefetchMaxAge = Duration.ofSeconds(5);
+    private ProgressHandler progressHandler;
+
+    /**
+     * Creates a new runner for the specified Interactor.
+     *
+     * @param interactor The Interactor used to fetch data and update the Model
+     * @throws IllegalArgumentException if the interactor is null
+     */
+    public LookupRunner(Interactor<?> interactor) {
+        if (interactor == null) {
+            throw new IllegalArgumentException("Interactor must not be null");
+        }
+
+        this.interactor = interactor;
+        if (interactor instanceof ResilientInteractor<?> resilient) {
+            metrics.setCircuitBreaker(resilient.circuitBreaker());
+        }
+    }
+
+    /**
+     * Starts a lookup. This method must be called on the JavaFX Application Thread.
+     *
+     * @param onSuccess A callback executed on the JavaFX Application Thread after the lookup completes successfully,
+     *                  whether the Model was updated or not. May be null.
+     * @param onFailure A callback executed on the JavaFX Application Thread with the cause of a failed lookup. May be null.
+     */
+    public void run(Runnable onSuccess, Consumer<Throwable> onFailure) {
+        metrics.recordStarted();
+
+        var prefetched = prefetchedResult;
+        prefetchedResult = null; // used at most once, by the first lookup after the prefetch
+        if (prefetched != null && System.nanoTime() - prefetchedAt <= prefetchMaxAge.toNanos()) {
+            metrics.recordPrefetchHit();
+            succeeded(prefetched, onSuccess);
+            return;
+        }
+
+        LookupScheduler.Job<FetchResult> job;
+        ProgressForwarder forwarder;
+        if (prefetchJob != null) {
+            // adopt the prefetch in progress, at the priority of a regular lookup
+            job = prefetchJob;
+            forwarder = prefetchForwarder;
+            prefetchJob = null;
+            prefetchForwarder = null;
+            job.setPriority(getPriority());
+            metrics.recordPrefetchHit();
+        } else {
+            forwarder = interactor instanceof ProgressInteractor<?, ?> ? new ProgressForwarder() : null;
+            job = submitFetch(getPriority(), forwarder);
+        }
+        if (forwarder != null) {
+            reportProgress(-1, "");
+            forwarder.forwarding = true;
+        }
+        jobs.add(job);
+
+        job.result().whenComplete((result, failure) -> Platform.runLater(() -> {
+            jobs.remove(job);
+            if (forwarder != null) {
+                if (failure == null) {
+                    forwarder.drain(); // the last partial results come before the complete result
+                }
+                forwarder.close();
+                if (failure != null) {
+                    forwarder.discard();
+                }
+            }
+            if (failure instanceof CancellationException) {
+                metrics.recordCancelled();
+                return;
+            }
+
+            if (failure != null) {
+                if (failure instanceof BulkheadFullException) {
+                    metrics.recordRejected();
+                } else {
+                    metrics.recordFailed();
+                }
+                if (onFailure != null) {
+                    onFailure.accept(failure);
+                }
+                return;
+            }
+
+            succeeded(result, onSuccess);
+        }));
+    }
+
+    private LookupScheduler.Job<FetchResult> submitFetch(LookupPriority priority, ProgressForwarder forwarder) {
+        boolean snapshotting = snapshotStore != null && interactor instanceof SnapshotInteractor<?, ?>;
+        return scheduler.submit(() -> {
+            long start = System.nanoTime();
+            fetch(forwarder);
+            Long fingerprint = interactor instanceof FingerprintingInteractor<?> fingerprinting
+                    ? fingerprinting.fingerprint()
+                    : null;
+            Object snapshotData = snapshotting ? ((SnapshotInteractor<?, ?>) interactor).snapshotData() : null;
+            metrics.recordFetchTime(System.nanoTime() - start);
+            return new FetchResult(fingerprint, snapshotData, snapshotting);
+        }, priority, interactor instanceof ResilientInteractor<?> resilient ? resilient.dataSourceId() : null);
+    }
+
+    private void fetch(ProgressForwarder forwarder) throws Exception {
+        if (interactor instanceof ResilientInteractor<?> resilient) {
+            resilient.retryPolicy().call(() -> {
+                fetchOnce(forwarder);
+                return null;
+            }, resilient.circuitBreaker(), metrics::recordRetry);
+        } else {
+            fetchOnce(forwarder);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void fetchOnce(ProgressForwarder forwarder) throws Exception {
+        if (forwarder != null) {
+            forwarder.startAttempt();
+            ((ProgressInteractor<?, Object>) interactor).fetchData(forwarder);
+        } else {
+            interactor.fetchData();
+        }
+    }
+
+    private void succeeded(FetchResult result, Runnable onSuccess) {
+        if (isActive()) {
+            apply(result);
+        } else {
+            if (deferredResult != null) {
+                metrics.recordConflated();
+            }
+            metrics.recordDeferred();
+            deferredResult = result;
+        }
+        if (onSuccess != null) {
+            onSuccess.run();
+        }
+    }
+
+    /**
+     * Starts a prefetch: a fetch at {@link LookupPriority#PREFETCH} priority, whose result is not applied to the Model.
+     * The next {@link #run(Runnable, Consumer)} takes the prefetch over if it is still in progress, or applies its
+     * result if it completed within the max age (see {@link #setPrefetchMaxAge(Duration)}), rather than starting a
+     * second fetch. Prefetch failures are ignored. This method does nothing if a prefetch or a lookup is already in
+     * progress: the Interactor holds the fetched data, so a prefetch must not run along with a lookup.
+     * This method must be called on the JavaFX Application Thread.
+     */
+    public void prefetch() {
+        if (prefetchJob != null || !jobs.isEmpty()) {
+            return;
+        }
+
+        metrics.recordPrefetch();
+        // reports are not forwarded unless a lookup takes the prefetch over
+        var forwarder = interactor instanceof ProgressInteractor<?, ?> ? new ProgressForwarder() : null;
+        var job = submitFetch(LookupPriority.PREFETCH, forwarder);
+        prefetchJob = job;
+        prefetchForwarder = forwarder;
+        job.result().whenComplete((result, failure) -> Platform.runLater(() -> {
+            if (prefetchJob != job) {
+                return; // cancelled, or taken over by a lookup
+            }
+            prefetchJob = null;
+            prefetchForwarder = null;
+            if (failure == null) {
+                prefetchedResult = result;
+                prefetchedAt = System.nanoTime();
+            }
+        }));
+    }
+
+    /**
+     * Cancels the prefetch in progress, if any, and drops the result of a completed prefetch not used yet.
+     * This method must be called on the JavaFX Application Thread.
+     */
+    public void cancelPrefetch() {
+        prefetchedResult = null;
+        if (prefetchJob != null) {
+            var job = prefetchJob;
+            prefetchJob = null;
+            prefetchForwarder = null;
+            job.cancel();
+        }
+    }
+
+    /**
+     * Sets how long the result of a completed prefetch can be applied by the next lookup instead of fetching again.
+     * 5 seconds by default; {@link Duration#ZERO} makes lookups only take over prefetches still in progress.
+     *
+     * @param maxAge The max age of a prefetched result
+     * @throws IllegalArgumentException if the max age is null or negative
+     */
+    public void setPrefetchMaxAge(Duration maxAge) {
+        if (maxAge == null || maxAge.isNegative()) {
+            throw new IllegalArgumentException("Max age must not be null or negative");
+        }
+
+        this.prefetchMaxAge = maxAge;
+    }
+
+    private boolean isActive() {
+        return active == null || active.get();
+    }
+
+    private void applyDeferred() {
+        if (deferredResult != null && isActive()) {
+            var result = deferredResult;
+            deferredResult = null;
+            apply(result);
+        }
+    }
+
+    private void apply(FetchResult result) {
+        var fingerprint = result.fingerprint();
+        if (fingerprint != null) {
+            if (fingerprintApplied && appliedFingerprint == fingerprint) {
+                metrics.recordFingerprintHit();
+                resultApplied = true;
+                return;
+            }
+            metrics.recordFingerprintMiss();
+        }
+
+        interactor.updateModelAfterFetchingData();
+        metrics.recordApplied();
+        resultApplied = true;
+
+        fingerprintApplied = fingerprint != null;
+        if (fingerprintApplied) {
+            appliedFingerprint = fingerprint;
+        }
+
+        if (result.snapshotting() && snapshotStore != null) {
+            saveSnapshot((SnapshotInteractor<?, ?>) interactor, snapshotStore, result.snapshotData(), fingerprint);
+        }
+    }
+
+    /**
+     * Enables on-disk snapshots of the results applied by this runner.
+     * This method has no effect if the Interactor is not a {@link SnapshotInteractor}.
+     *
+     * <p>The last snapshot is read on a background thread and restored into the Model on the JavaFX Application Thread,
+     * unless a lookup result has been applied in the meantime. Fresh lookup results then reconcile the Model as usual:
+     * a result whose fingerprint matches the restored snapshot is not applied again.
+     * Snapshot read and write failures are counted in the metrics, and otherwise ignored.
+     *
+     * <p>This method must be called on the JavaFX Application Thread, typically in the controller constructor,
+     * before the first lookup.
+     *
+     * @param store The store holding the snapshots. Must not be null.
+     * @throws IllegalArgumentException if the store is null
+     */
+    public void enableSnapshots(SnapshotStore store) {
+        if (store == null) {
+            throw new IllegalArgumentException("Snapshot store must not be null");
+        }
+
+        this.snapshotStore = store;
+        if (interactor instanceof SnapshotInteractor<?, ?> snapshotInteractor) {
+            restoreSnapshot(snapshotInteractor, store);
+        }
+    }
+
+    private <T> void restoreSnapshot(SnapshotInteractor<?, T> snapshotInteractor, SnapshotStore store) {
+        var id = snapshotInteractor.snapshotId();
+        var codec = snapshotInteractor.snapshotCodec();
+        SNAPSHOT_IO.execute(() -> {
+            try {
+                store.load(id, codec).ifPresent(snapshot -> Platform.runLater(() -> {
+                    if (resultApplied) {
+                        return; // a fresh result is already shown: the snapshot is outdated
+                    }
+                    snapshotInteractor.restoreSnapshot(snapshot.value());
+                    metrics.recordSnapshotRestored();
+                    fingerprintApplied = snapshot.hasFingerprint();
+                    appliedFingerprint = snapshot.fingerprint();
+                }));
+            } catch (Exception e) {
+                metrics.recordSnapshotFailure();
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> void saveSnapshot(SnapshotInteractor<?, T> snapshotInteractor, SnapshotStore store, Object data, Long fingerprint) {
+        var id = snapshotInteractor.snapshotId();
+        var codec = snapshotInteractor.snapshotCodec();
+        SNAPSHOT_IO.execute(() -> {
+            try {
+                store.save(id, codec, (T) data, fingerprint);
+                metrics.recordSnapshotSaved();
+            } catch (Exception e) {
+                metrics.recordSnapshotFailure();
+            }
+        });
+    }
+
+    /**
+     * Sets the scheduler running the lookups started afterwards. By default, the {@link LookupScheduler#shared()} one.
+     *
+     * @param scheduler The scheduler. Must not be null.
+     * @throws IllegalArgumentException if the scheduler is null
+     */
+    public void setScheduler(LookupScheduler scheduler) {
+        if (scheduler == null) {
+            throw new IllegalArgumentException("Scheduler must not be null");
+        }
+
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Sets the priority of the lookups, typically derived from the focus and the visibility of the controller's view.
+     * Lookups in progress follow its changes: they are boosted when the view gains the focus and demoted when it is hidden.
+     * This method must be called on the JavaFX Application Thread.
+     *
+     * @param priority The priority, or null for {@link LookupPriority#VISIBLE}
+     */
+    public void setPriority(ObservableValue<LookupPriority> priority) {
+        if (this.priority != null) {
+            this.priority.removeListener(priorityListener);
+        }
+        this.priority = priority;
+        if (priority != null) {
+            priority.addListener(priorityListener);
+        }
+        updatePriority();
+    }
+
+    /**
+     * Gets the current priority of the lookups.
+     * @return the priority of the lookups
+     */
+    public LookupPriority getPriority() {
+        var current = priority == null ? null : priority.getValue();
+        return current == null ? LookupPriority.VISIBLE : current;
+    }
+
+    private void updatePriority() {
+        var current = getPriority();
+        jobs.forEach(job -> job.setPriority(current));
+    }
+
+    /**
+     * Tells whether lookups started by {@link #run(Runnable, Consumer)} are in progress. A prefetch not taken over
+     * by a lookup is not counted. This method must be called on the JavaFX Application Thread.
+     *
+     * @return true if a lookup is in progress
+     */
+    public boolean isRunning() {
+        return !jobs.isEmpty();
+    }
+
+    /**
+     * Cancels the lookups in progress: their results are not applied, and their callbacks are not called.
+     * This method must be called on the JavaFX Application Thread.
+     */
+    public void cancel() {
+        List.copyOf(jobs).forEach(LookupScheduler.Job::cancel);
+    }
+
+    /**
+     * Sets the condition under which fetch results are applied to the Model, typically the showing state of the
+     * controller's view. While the condition is false, the latest fetch result is kept and the previous ones are
+     * dropped; it is applied as soon as the condition turns true. The success callbacks of the lookups are not delayed.
+     * This method must be called on the JavaFX Application Thread.
+     *
+     * @param active The condition, or null to always apply results immediately
+     */
+    public void setActive(ObservableBooleanValue active) {
+        if (this.active != null) {
+            this.active.removeListener(activeListener);
+        }
+        this.active = active;
+        if (active != null) {
+            active.addListener(activeListener);
+        }
+        applyDeferred();
+    }
+
+    /**
+     * Forgets the fingerprint of the last applied result, so that the next lookup always updates the Model.
+     * This is useful when the Model was changed by other means than a lookup (e.g.: a local edit).
+     * This method must be called on the JavaFX Application Thread.
+     */
+    public void invalidateFingerprint() {
+        fingerprintApplied = false;
+    }
+
+    /**
+     * Sets the handler of the progress reported by a {@link ProgressInteractor}. It is called on the JavaFX Application
+     * Thread, at most once per pulse, with an indeterminate progress and an empty message when a lookup or an attempt
+     * of it starts, and with a progress of 0 and an empty message when the last lookup in progress fails or is cancelled.
+     *
+     * @param handler The handler, or null to ignore the progress
+     */
+    public void setOnProgress(ProgressHandler handler) {
+        this.progressHandler = handler;
+    }
+
+    private void reportProgress(double progress, String message) {
+        if (progressHandler != null) {
+            progressHandler.progress(progress, message);
+        }
+    }
+
+    /**
+     * Gets the metrics of the lookups run by this runner.
+     * @return the LookupMetrics of this runner
+     */
+    public LookupMetrics getMetrics() {
+        return metrics;
+    }
+
+    private record FetchResult(Long fingerprint, Object snapshotData, boolean snapshotting) {
+    }
+
+    /**
+     * Handles the progress reported by a {@link ProgressInteractor}.
+     */
+    @FunctionalInterface
+    public interface ProgressHandler {
+        /**
+         * Handles the progress of a lookup.
+         *
+         * @param progress The fraction of work done, between 0 and 1, or -1 if the progress is indeterminate
+         * @param message The last message reported, or an empty string
+         */
+        void progress(double progress, String message);
+    }
+
+    /**
+     * The context of a fetch of a {@link ProgressInteractor}. Reports are conflated on the fetch thread, and drained on
+     * the JavaFX Application Thread by an animation timer, started only while there is something to drain and stopped
+     * at the first pulse, so that they are forwarded at most once per pulse.
+     * The same context is used by every attempt of the fetch (retries, and runs of a preempted lookup): each attempt
+     * starts from a fresh state, and the partial results forwarded by the previous attempts are discarded first.
+     */
+    private final class ProgressForwarder implements FetchContext<Object> {
+        private final Object lock = new Object();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AnimationTimer timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                stop();
+                scheduled.set(false);
+                drain();
+            }
+        };
+        private volatile boolean forwarding;
+        private boolean closed;
+        private int attempts;
+        private boolean restarted;
+        private boolean forwarded;
+        private boolean progressChanged;
+        private double progress = -1;
+        private String message = "";
+        private List<Object> partials = new ArrayList<>();
+
+        private void startAttempt() {
+            synchronized (lock) {
+                progress = -1;
+                message = "";
+                progressChanged = true;
+                partials = new ArrayList<>();
+                restarted = attempts++ > 0;
+            }
+            schedule();
+        }
+
+        @Override
+        public void updateProgress(double workDone, double max) {
+            synchronized (lock) {
+                progress = workDone < 0 || max <= 0 ? -1 : Math.min(1, workDone / max);
+                progressChanged = true;
+            }
+            schedule();
+        }
+
+        @Override
+        public void updateMessage(String message) {
+            synchronized (lock) {
+                this.message = message == null ? "" : message;
+                progressChanged = true;
+            }
+            schedule();
+        }
+
+        @Override
+        public void publish(Object partial) {
+            if (!forwarding) {
+                return; // a prefetch not taken over yet: its partial results would never be shown
+            }
+            synchronized (lock) {
+                partials.add(partial);
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (forwarding && scheduled.compareAndSet(false, true)) {
+                Platform.runLater(timer::start);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void drain() {
+            boolean changed;
+            boolean restart;
+            double currentProgress;
+            String currentMessage;
+            List<Object> published;
+            synchronized (lock) {
+                if (closed || !forwarding) {
+                    return;
+                }
+                restart = restarted;
+                restarted = false;
+                changed = progressChanged;
+                currentProgress = progress;
+                currentMessage = message;
+                published = partials;
+                progressChanged = false;
+                partials = new ArrayList<>();
+            }
+
+            if (restart && forwarded) {
+                forwarded = false;
+                ((ProgressInteractor<?, ?>) interactor).discardPartialResults();
+            }
+            if (changed) {
+                reportProgress(currentProgress, currentMessage);
+            }
+            if (!published.isEmpty()) {
+                forwarded = true;
+                ((ProgressInteractor<?, Object>) interactor).updateModelWithPartialResults(published);
+            }
+        }
+
+        // the lookup failed or was cancelled: its partial results will never be completed
+        private void discard() {
+            if (forwarded) {
+                forwarded = false;
+                ((ProgressInteractor<?, ?>) interactor).discardPartialResults();
+            }
+            if (jobs.isEmpty()) {
+                reportProgress(0, "");
+            }
+        }
+
+        private void close() {
+            synchronized (lock) {
+                closed = true;
+                partials = new ArrayList<>();
+            }
+            timer.stop();
+        }
+    }
+}
@@ -0,0 +1,478 @@
+package com.maemlab.mvcifx.lookup;
+
+import com.maemlab.mvcifx.exception.BulkheadFullException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs lookups on a bounded set of worker threads, highest {@link LookupPriority} first, so that a slow fetch of a
+ * background screen cannot hold the workers the focused screen needs.
+ *
+ * <p>Waiting lookups are dispatched by priority, then in submission order. The priority of a lookup can change while
+ * it waits or runs, e.g. when its screen gains the focus or is hidden: waiting lookups are re-ordered immediately.
+ * When a lookup is waiting and all the workers are busy, the running lookup of the lowest preemptible priority (see
+ * {@link LookupPriority#isPreemptible()}) below it is preempted: its worker thread is interrupted and the lookup is
+ * put back in the queue, to be run again from the start once a worker is free. A preempted lookup that completes
+ * anyway, because its data source ignored the interruption, keeps its result.
+ *
+ * <p>Lookups submitted with a data source are isolated in the bulkhead of that source: at most {@code maxConcurrent}
+ * of its lookups run at the same time, half of the workers by default, so that a slow data source cannot hold all the
+ * workers and freeze the screens depending on healthy ones. At most {@code maxQueued} of its lookups wait, 32 by
+ * default: when a lookup is submitted to a full bulkhead, the waiting lookup of the lowest priority is shed in its
+ * favor if it has a lower priority than the new one, otherwise the new lookup is rejected. Shed and rejected lookups
+ * fail with a {@link BulkheadFullException}. Bulkheads can be sized per data source through
+ * {@link #setBulkhead(String, int, int)}.
+ *
+ * <p>Lookups are usually submitted through a {@link LookupRunner}, which uses the {@link #shared()} scheduler
+ * unless another one is set, and the data source of the Interactor if it is a
+ * {@link com.maemlab.mvcifx.mvci.base.ResilientInteractor}.
+ *
+ * @see LookupPriority
+ * @see LookupRunner
+ */
+public class LookupScheduler {
+    private static final LookupScheduler SHARED = new LookupScheduler(Math.max(4, Runtime.getRuntime().availableProcessors()));
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final PriorityQueue<Job<?>> queue = new PriorityQueue<>();
+    private final List<Job<?>> running = new ArrayList<>();
+    private final int workers;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong preemptions = new AtomicLong();
+    private final AtomicLong rejections = new AtomicLong();
+    private final Map<String, Bulkhead> bulkheads = new HashMap<>();
+
+    /**
+     * Creates a new scheduler.
+     *
+     * @param workers The number of worker threads
+     * @throws IllegalArgumentException if workers is not positive
+     */
+    public LookupScheduler(int workers) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("Workers must be positive");
+        }
+
+        this.workers = workers;
+        var threads = LookupThreads.daemon("mvcifx-lookup");
+        for (int i = 0; i < workers; i++) {
+            threads.newThread(this::work).start();
+        }
+    }
+
+    /**
+     * Gets the scheduler shared by default by all the lookup runners, with one worker per processor, and at least four.
+     * @return the shared scheduler
+     */
+    public static LookupScheduler shared() {
+        return SHARED;
+    }
+
+    /**
+     * Sets the size of the bulkhead of a data source.
+     *
+     * @param dataSource The identifier of the data source
+     * @param maxConcurrent The maximum number of lookups of the data source running at the same time
+     * @param maxQueued The maximum number of lookups of the data source waiting for a worker
+     * @throws IllegalArgumentException if the data source is null, or if a limit is not positive
+     */
+    public void setBulkhead(String dataSource, int maxConcurrent, int maxQueued) {
+        if (dataSource == null) {
+            throw new IllegalArgumentException("Data source must not be null");
+        }
+        if (maxConcurrent <= 0 || maxQueued <= 0) {
+            throw new IllegalArgumentException("Bulkhead limits must be positive");
+        }
+
+        lock.lock();
+        try {
+            var bulkhead = bulkhead(dataSource);
+            bulkhead.maxConcurrent = maxConcurrent;
+            bulkhead.maxQueued = maxQueued;
+            releaseParked(bulkhead);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Bulkhead bulkhead(String dataSource) {
+        return bulkheads.computeIfAbsent(dataSource, source -> new Bulkhead(source, Math.max(1, workers / 2), 32));
+    }
+
+    /**
+     * Submits a lookup.
+     *
+     * @param call The lookup to run on a worker thread. It should respond to interruption, to be preemptible.
+     * @param priority The initial priority of the lookup
+     * @param <T> The type of the result of the lookup
+     * @return the handle of the lookup
+     * @throws IllegalArgumentException if a parameter is null
+     */
+    public <T> Job<T> submit(Callable<T> call, LookupPriority priority) {
+        return submit(call, priority, null);
+    }
+
+    /**
+     * Submits a lookup calling a data source, in the bulkhead of that source. If the bulkhead is full, either a waiting
+     * lookup of lower priority or the submitted one fails with a {@link BulkheadFullException}.
+     *
+     * @param call The lookup to run on a worker thread. It should respond to interruption, to be preemptible.
+     * @param priority The initial priority of the lookup
+     * @param dataSource The identifier of the data source, or null to run the lookup outside any bulkhead
+     * @param <T> The type of the result of the lookup
+     * @return the handle of the lookup
+     * @throws IllegalArgumentException if the call or the priority is null
+     */
+    public <T> Job<T> submit(Callable<T> call, LookupPriority priority, String dataSource) {
+        if (call == null || priority == null) {
+            throw new IllegalArgumentException("Call and priority must not be null");
+        }
+
+        lock.lock();
+        try {
+            var job = new Job<>(call, priority, dataSource == null ? null : bulkhead(dataSource));
+            if (job.bulkhead != null && job.bulkhead.waiting >= job.bulkhead.maxQueued) {
+                var shed = job.bulkhead.lowestWaiting(queue);
+                if (shed == null || shed.priority.compareTo(priority) <= 0) {
+                    reject(job);
+                    return job;
+                }
+                unqueue(shed);
+                reject(shed);
+            }
+            enqueue(job);
+            return job;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void reject(Job<?> job) {
+        rejections.incrementAndGet();
+        job.result.completeExceptionally(new BulkheadFullException(job.bulkhead.dataSource));
+    }
+
+    private void enqueue(Job<?> job) {
+        job.sequence = sequence.incrementAndGet();
+        var bulkhead = job.bulkhead;
+        if (bulkhead != null) {
+            bulkhead.waiting++;
+            if (bulkhead.running >= bulkhead.maxConcurrent) {
+                bulkhead.parked.add(job); // waits for a lookup of its data source to complete
+                return;
+            }
+        }
+        queue.add(job);
+        available.signal();
+        preemptFor(job);
+    }
+
+    private boolean unqueue(Job<?> job) {
+        if (!queue.remove(job) && (job.bulkhead == null || !job.bulkhead.parked.remove(job))) {
+            return false;
+        }
+        if (job.bulkhead != null) {
+            job.bulkhead.waiting--;
+        }
+        return true;
+    }
+
+    private void releaseParked(Bulkhead bulkhead) {
+        while (!bulkhead.parked.isEmpty() && bulkhead.running + countQueued(bulkhead) < bulkhead.maxConcurrent) {
+            var job = bulkhead.parked.poll();
+            queue.add(job);
+            available.signal();
+            preemptFor(job);
+        }
+    }
+
+    private int countQueued(Bulkhead bulkhead) {
+        var count = 0;
+        for (var job : queue) {
+            if (job.bulkhead == bulkhead) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void preemptFor(Job<?> waiting) {
+        if (running.size() < workers) {
+            return;
+        }
+
+        Job<?> victim = null;
+        for (var job : running) {
+            if (!job.preempted && job.priority.isPreemptible() && job.priority.compareTo(waiting.priority) > 0
+                    && (victim == null || job.priority.compareTo(victim.priority) > 0)) {
+                victim = job;
+            }
+        }
+        if (victim != null) {
+            victim.preempted = true;
+            victim.thread.interrupt();
+            preemptions.incrementAndGet();
+        }
+    }
+
+    private void work() {
+        while (true) {
+            Job<?> job;
+            lock.lock();
+            try {
+                while (true) {
+                    while (queue.isEmpty()) {
+                        available.awaitUninterruptibly();
+                    }
+                    job = queue.poll();
+                    var bulkhead = job.bulkhead;
+                    if (bulkhead == null) {
+                        break;
+                    }
+                    if (bulkhead.running < bulkhead.maxConcurrent) {
+                        bulkhead.waiting--;
+                        bulkhead.running++;
+                        break;
+                    }
+                    bulkhead.parked.add(job); // its data source got saturated while it was waiting
+                }
+                job.thread = Thread.currentThread();
+                running.add(job);
+            } finally {
+                lock.unlock();
+            }
+
+            var requeue = job.run();
+
+            lock.lock();
+            try {
+                running.remove(job);
+                job.thread = null;
+                if (job.bulkhead != null) {
+                    job.bulkhead.running--;
+                    releaseParked(job.bulkhead);
+                }
+                Thread.interrupted(); // clear a preemption or cancellation that came too late
+                if (requeue) {
+                    job.preempted = false;
+                    enqueue(job);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Gets the number of running lookups preempted by higher priority ones since the creation of this scheduler.
+     * @return the number of preemptions
+     */
+    public long getPreemptions() {
+        return preemptions.get();
+    }
+
+    /**
+     * Gets the number of lookups rejected or shed because the bulkhead of their data source was full.
+     * @return the number of rejections
+     */
+    public long getRejections() {
+        return rejections.get();
+    }
+
+    /**
+     * Gets the number of lookups of a data source waiting for a worker.
+     *
+     * @param dataSource The identifier of the data source
+     * @return the number of waiting lookups in the bulkhead of the data source
+     */
+    public int getQueued(String dataSource) {
+        lock.lock();
+        try {
+            var bulkhead = bulkheads.get(dataSource);
+            return bulkhead == null ? 0 : bulkhead.waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of lookups waiting for a worker.
+     * @return the size of the queue
+     */
+    public int getQueued() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The handle of a lookup submitted to a {@link LookupScheduler}.
+     *
+     * @param <T> The type of the result of the lookup
+     */
+    public final class Job<T> implements Comparable<Job<?>> {
+        private final Callable<T> call;
+        private final Bulkhead bulkhead;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private LookupPriority priority;
+        private long sequence;
+        private Thread thread;
+        private boolean preempted;
+
+        private Job(Callable<T> call, LookupPriority priority, Bulkhead bulkhead) {
+            this.call = call;
+            this.priority = priority;
+            this.bulkhead = bulkhead;
+        }
+
+        private boolean run() {
+            if (result.isDone()) {
+                return false; // cancelled while waiting
+            }
+            try {
+                result.complete(call.call());
+                return false;
+            } catch (Throwable t) {
+                lock.lock();
+                try {
+                    if (preempted && !result.isDone()) {
+                        return true;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                result.completeExceptionally(t);
+                return false;
+            }
+        }
+
+        /**
+         * Gets the future completed with the result of the lookup, on the worker thread.
+         * @return the result of the lookup
+         */
+        public CompletableFuture<T> result() {
+            return result;
+        }
+
+        /**
+         * Gets the current priority of the lookup.
+         * @return the priority
+         */
+        public LookupPriority getPriority() {
+            lock.lock();
+            try {
+                return priority;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Changes the priority of the lookup. A waiting lookup is re-ordered in the queue, and may preempt a running
+         * lookup of lower priority.
+         *
+         * @param priority The new priority
+         * @throws IllegalArgumentException if the priority is null
+         */
+        public void setPriority(LookupPriority priority) {
+            if (priority == null) {
+                throw new IllegalArgumentException("Priority must not be null");
+            }
+
+            lock.lock();
+            try {
+                if (this.priority == priority) {
+                    return;
+                }
+                if (queue.remove(this)) {
+                    this.priority = priority;
+                    queue.add(this);
+                    preemptFor(this);
+                } else if (bulkhead != null && bulkhead.parked.remove(this)) {
+                    this.priority = priority;
+                    bulkhead.parked.add(this);
+                } else {
+                    this.priority = priority;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Cancels the lookup: it is removed from the queue if waiting, or its worker thread is interrupted if running.
+         * The result future is completed with a {@link java.util.concurrent.CancellationException}.
+         */
+        public void cancel() {
+            lock.lock();
+            try {
+                if (!result.cancel(false)) {
+                    return;
+                }
+                if (!unqueue(this) && thread != null) {
+                    thread.interrupt();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public int compareTo(Job<?> other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * The lookups of a data source, running or waiting. Parked lookups wait for a lookup of the data source to complete
+     * before going back to the queue.
+     */
+    private static final class Bulkhead {
+        private final String dataSource;
+        private final PriorityQueue<Job<?>> parked = new PriorityQueue<>();
+        private int maxConcurrent;
+        private int maxQueued;
+        private int running;
+        private int waiting;
+
+        private Bulkhead(String dataSource, int maxConcurrent, int maxQueued) {
+            this.dataSource = dataSource;
+            this.maxConcurrent = maxConcurrent;
+            this.maxQueued = maxQueued;
+        }
+
+        private Job<?> lowestWaiting(PriorityQueue<Job<?>> queue) {
+            Job<?> lowest = null;
+            for (var job : queue) {
+                lowest = job.bulkhead == this ? lower(lowest, job) : lowest;
+            }
+            for (var job : parked) {
+                lowest = lower(lowest, job);
+            }
+            return lowest;
+        }
+
+        // the lowest priority first, then the oldest, whose result is the least likely to still be awaited
+        private static Job<?> lower(Job<?> current, Job<?> candidate) {
+            if (current == null) {
+                return candidate;
+            }
+            int byPriority = candidate.priority.compareTo(current.priority);
+            return byPriority > 0 || (byPriority == 0 && candidate.sequence < current.sequence) ? candidate : current;
+        }
+    }
+}
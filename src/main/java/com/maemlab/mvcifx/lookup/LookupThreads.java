@@ -0,0 +1,21 @@
+package com.maemlab.mvcifx.lookup;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the daemon background threads used by the lookup machinery, so that pending lookups never
+ * prevent the application from exiting.
+ */
+final class LookupThreads {
+    private LookupThreads() {}
+
+    static ThreadFactory daemon(String prefix) {
+        var counter = new AtomicInteger();
+        return runnable -> {
+            var thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,185 @@
+package com.maemlab.mvcifx.lookup;
+
+import com.maemlab.mvcifx.exception.CircuitOpenException;
+import com.maemlab.mvcifx.exception.TransientException;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+
+/**
+ * Retries the calls to a data source that failed with a transient error, waiting a jittered, exponentially growing
+ * delay between attempts, so that callers hit by the same outage do not retry in lockstep.
+ *
+ * <p>The delay before the attempt {@code n + 1} is drawn uniformly between zero and
+ * {@code min(maxDelay, initialDelay * 2^(n - 1))} ("full jitter"). By default, failures whose cause chain contains a
+ * {@link TransientException} (including timeouts) or a {@link TimeoutException} are retried; other failures are
+ * thrown immediately.
+ *
+ * <p>Calls run on the caller's thread, which sleeps between attempts: they must not be made on the JavaFX
+ * Application Thread. An interrupted caller (e.g. a cancelled or preempted lookup) stops retrying.
+ * Instances are immutable and thread-safe.
+ *
+ * @see CircuitBreaker
+ * @see com.maemlab.mvcifx.mvci.base.ResilientInteractor
+ */
+public final class RetryPolicy {
+    /**
+     * Up to 3 attempts, waiting up to 200 milliseconds, then up to 400 milliseconds.
+     */
+    public static final RetryPolicy DEFAULT = new RetryPolicy(3, Duration.ofMillis(200), Duration.ofSeconds(5));
+
+    /**
+     * A single attempt.
+     */
+    public static final RetryPolicy NONE = new RetryPolicy(1, Duration.ZERO, Duration.ZERO);
+
+    private final int maxAttempts;
+    private final Duration initialDelay;
+    private final Duration maxDelay;
+    private final Predicate<Throwable> retryable;
+
+    /**
+     * Creates a new policy retrying transient failures.
+     *
+     * @param maxAttempts The maximum number of attempts, including the first one
+     * @param initialDelay The upper bound of the delay before the second attempt
+     * @param maxDelay The upper bound of any delay
+     * @throws IllegalArgumentException if a duration is null or negative, or if maxAttempts is not positive
+     */
+    public RetryPolicy(int maxAttempts, Duration initialDelay, Duration maxDelay) {
+        this(maxAttempts, initialDelay, maxDelay, RetryPolicy::isTransient);
+    }
+
+    /**
+     * Creates a new policy.
+     *
+     * @param maxAttempts The maximum number of attempts, including the first one
+     * @param initialDelay The upper bound of the delay before the second attempt
+     * @param maxDelay The upper bound of any delay
+     * @param retryable Tells whether a failure is retried
+     * @throws IllegalArgumentException if a parameter is null, if a duration is negative, or if maxAttempts is not positive
+     */
+    public RetryPolicy(int maxAttempts, Duration initialDelay, Duration maxDelay, Predicate<Throwable> retryable) {
+        if (initialDelay == null || maxDelay == null || retryable == null) {
+            throw new IllegalArgumentException("Delays and retryable predicate must not be null");
+        }
+        if (maxAttempts <= 0 || initialDelay.isNegative() || maxDelay.isNegative()) {
+            throw new IllegalArgumentException("Max attempts must be positive, and delays must not be negative");
+        }
+
+        this.maxAttempts = maxAttempts;
+        this.initialDelay = initialDelay;
+        this.maxDelay = maxDelay;
+        this.retryable = retryable;
+    }
+
+    /**
+     * Tells whether a failure is transient: its cause chain contains a {@link TransientException} or a
+     * {@link TimeoutException}.
+     *
+     * @param failure The failure
+     * @return true if the failure is transient
+     */
+    public static boolean isTransient(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            if (cause instanceof TransientException || cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Calls a data source, retrying transient failures.
+     *
+     * @param call The call
+     * @param <T> The type of the result
+     * @return the result of the first successful attempt
+     * @throws Exception the failure of the last attempt, or an {@link InterruptedException} if the caller was
+     *                   interrupted while waiting to retry
+     */
+    public <T> T call(Callable<T> call) throws Exception {
+        return call(call, null, null);
+    }
+
+    /**
+     * Calls a data source through its circuit breaker, retrying transient failures.
+     * Each attempt asks the breaker for permission: once it opens, the remaining attempts fail fast with a
+     * {@link CircuitOpenException}, which is not retried.
+     *
+     * @param call The call
+     * @param breaker The breaker of the data source. May be null.
+     * @param onRetry A callback run before each retry, e.g. to count them. May be null.
+     * @param <T> The type of the result
+     * @return the result of the first successful attempt
+     * @throws Exception the failure of the last attempt, a {@link CircuitOpenException} if the breaker rejected the call,
+     *                   or an {@link InterruptedException} if the caller was interrupted while waiting to retry
+     */
+    public <T> T call(Callable<T> call, CircuitBreaker breaker, Runnable onRetry) throws Exception {
+        for (int attempt = 1; ; attempt++) {
+            if (breaker != null) {
+                breaker.acquire();
+            }
+
+            T result;
+            try {
+                result = call.call();
+            } catch (InterruptedException e) {
+                if (breaker != null) {
+                    breaker.recordAbandoned();
+                }
+                throw e;
+            } catch (Exception e) {
+                if (breaker != null) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        breaker.recordAbandoned();
+                    } else {
+                        breaker.recordFailure(e);
+                    }
+                }
+                if (attempt >= maxAttempts || !retryable.test(e) || Thread.currentThread().isInterrupted()) {
+                    throw e;
+                }
+                Thread.sleep(delayMillis(attempt));
+                if (onRetry != null) {
+                    onRetry.run();
+                }
+                continue;
+            } catch (Throwable e) {
+                // an error of the caller (e.g. an OutOfMemoryError) says nothing about the data source,
+                // but the permission must be given back: a probe call would otherwise never end
+                if (breaker != null) {
+                    breaker.recordAbandoned();
+                }
+                throw e;
+            }
+
+            if (breaker != null) {
+                breaker.recordSuccess();
+            }
+            return result;
+        }
+    }
+
+    private long delayMillis(int attempt) {
+        var bound = Math.min(maxDelay.toMillis(), initialDelay.toMillis() << Math.min(attempt - 1, 30));
+        return bound <= 0 ? 0 : ThreadLocalRandom.current().nextLong(bound + 1);
+    }
+
+    /**
+     * Gets the maximum number of attempts, including the first one.
+     * @return the maximum number of attempts
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    @Override
+    public String toString() {
+        return "RetryPolicy{maxAttempts=" + maxAttempts + ", initialDelay=" + initialDelay.toMillis() +
+                "ms, maxDelay=" + maxDelay.toMillis() + "ms}";
+    }
+}
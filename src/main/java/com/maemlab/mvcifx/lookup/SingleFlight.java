@@ -0,0 +1,227 @@
+package com.maemlab.mvcifx.lookup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deduplicates concurrent identical fetches: while a call for a given key is in flight, every other caller
+ * asking for the same key waits for that call instead of starting a new one, and receives the same result.
+ *
+ * <p>Keys identify a data source and its parameters, see {@link #key(Object, Object...)}. Results are not cached:
+ * once a call completes, the next request for the same key starts a new call.
+ *
+ * <p>The shared call runs on an executor owned by this class, not on the caller's thread, so it is safe under
+ * cancellation: when a caller is cancelled (e.g.: its Task is cancelled and its thread interrupted), it simply
+ * stops waiting and the other callers are not affected. The shared call itself is cancelled only when
+ * every caller waiting for it has been cancelled.
+ *
+ * <p>Typical usage inside {@link com.maemlab.mvcifx.mvci.Interactor#fetchData()}, which already runs on a background thread:
+ * <pre>{@code
+ * @Override
+ * public void fetchData() throws MVCIException {
+ *     try {
+ *         countries = SingleFlight.<List<Object>, List<Country>>shared()
+ *                 .call(SingleFlight.key("countries", language), () -> dao.getCountries(language));
+ *     } catch (Exception e) {
+ *         throw new DataException(e);
+ *     }
+ * }
+ * }</pre>
+ *
+ * @param <K> The type of the keys
+ * @param <V> The type of the results
+ */
+public class SingleFlight<K, V> {
+    private static final SingleFlight<Object, Object> SHARED = new SingleFlight<>();
+
+    private final ConcurrentHashMap<K, Flight> flights = new ConcurrentHashMap<>();
+    private final Executor executor;
+    private final AtomicLong executions = new AtomicLong();
+    private final AtomicLong deduplicated = new AtomicLong();
+
+    /**
+     * Creates a new instance running the shared calls on daemon threads.
+     */
+    public SingleFlight() {
+        this(Executors.newCachedThreadPool(LookupThreads.daemon("mvcifx-single-flight")));
+    }
+
+    /**
+     * Creates a new instance running the shared calls on the specified executor.
+     *
+     * @param executor The executor running the shared calls. Must not be null.
+     * @throws IllegalArgumentException if the executor is null
+     */
+    public SingleFlight(Executor executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor must not be null");
+        }
+
+        this.executor = executor;
+    }
+
+    /**
+     * Returns the instance shared by the whole application, so that controllers of different screens
+     * deduplicate their fetches.
+     *
+     * @param <K> The type of the keys
+     * @param <V> The type of the results
+     * @return the application-wide SingleFlight
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> SingleFlight<K, V> shared() {
+        return (SingleFlight<K, V>) SHARED;
+    }
+
+    /**
+     * Builds a key from a data source identifier and the parameters of the fetch.
+     * Two keys are equal when the data source and all the parameters are equal.
+     *
+     * @param dataSource The identifier of the data source (e.g.: a DAO class or a service name)
+     * @param parameters The parameters of the fetch
+     * @return a key suitable for {@link #call(Object, Callable)}
+     */
+    public static List<Object> key(Object dataSource, Object... parameters) {
+        var key = new Object[parameters.length + 1];
+        key[0] = dataSource;
+        System.arraycopy(parameters, 0, key, 1, parameters.length);
+        return Arrays.asList(key);
+    }
+
+    /**
+     * Returns the result of the call for the specified key, joining the call in flight if there is one,
+     * or starting the specified loader otherwise. The current thread blocks until the result is available.
+     *
+     * @param key The key identifying the fetch
+     * @param loader The loader to call if no call is in flight for the key
+     * @return the result of the shared call
+     * @throws InterruptedException if the current thread is interrupted while waiting. The shared call keeps
+     *                              running for the other callers.
+     * @throws Exception the exception thrown by the loader
+     */
+    public V call(K key, Callable<? extends V> loader) throws Exception {
+        var result = submit(key, loader);
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Asynchronous version of {@link #call(Object, Callable)}. Each caller receives its own future:
+     * cancelling it detaches only that caller from the shared call.
+     *
+     * @param key The key identifying the fetch
+     * @param loader The loader to call if no call is in flight for the key
+     * @return a future completed with the result of the shared call
+     */
+    public CompletableFuture<V> submit(K key, Callable<? extends V> loader) {
+        while (true) {
+            var candidate = new Flight(key, loader);
+            var flight = flights.putIfAbsent(key, candidate);
+            boolean leader = flight == null;
+            if (leader) {
+                flight = candidate;
+            }
+            if (!flight.join()) {
+                continue; // every caller left the flight while we were joining: start a new one
+            }
+
+            if (leader) {
+                executions.incrementAndGet();
+                executor.execute(flight.task);
+            } else {
+                deduplicated.incrementAndGet();
+            }
+
+            var mine = new CompletableFuture<V>();
+            var joined = flight;
+            joined.result.whenComplete((value, error) -> {
+                if (error != null) {
+                    mine.completeExceptionally(error instanceof CompletionException ? error.getCause() : error);
+                } else {
+                    mine.complete(value);
+                }
+            });
+            mine.whenComplete((value, error) -> {
+                if (error instanceof CancellationException) {
+                    joined.leave();
+                }
+            });
+            return mine;
+        }
+    }
+
+    /**
+     * @return the number of calls actually started
+     */
+    public long getExecutions() {
+        return executions.get();
+    }
+
+    /**
+     * @return the number of requests that joined a call already in flight
+     */
+    public long getDeduplicated() {
+        return deduplicated.get();
+    }
+
+    private final class Flight {
+        private final K key;
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+        private final FutureTask<Void> task;
+        private int waiters;
+        private boolean abandoned;
+
+        private Flight(K key, Callable<? extends V> loader) {
+            this.key = key;
+            this.task = new FutureTask<>(() -> {
+                try {
+                    result.complete(loader.call());
+                } catch (Throwable t) {
+                    result.completeExceptionally(t);
+                } finally {
+                    flights.remove(key, this);
+                }
+                return null;
+            });
+        }
+
+        private synchronized boolean join() {
+            if (abandoned) {
+                return false;
+            }
+            waiters++;
+            return true;
+        }
+
+        private void leave() {
+            synchronized (this) {
+                if (--waiters > 0 || result.isDone()) {
+                    return;
+                }
+                abandoned = true;
+            }
+            flights.remove(key, this);
+            task.cancel(true);
+            result.cancel(false);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+/**
+ * Provides the machinery that runs MVCI lookups off the JavaFX Application Thread.
+ *
+ * <p>This package contains the components used by controllers to retrieve data through their Interactor:
+ * <ul>
+ *   <li>{@link com.maemlab.mvcifx.lookup.LookupRunner}: Runs {@code fetchData()} on a background thread and applies
+ *   the result to the Model on the JavaFX Application Thread, skipping unchanged results
+ *   <li>{@link com.maemlab.mvcifx.lookup.LookupScheduler}: Runs lookups on a bounded set of workers by
+ *   {@link com.maemlab.mvcifx.lookup.LookupPriority}, preempting low priority lookups when needed, with a bulkhead
+ *   per data source
+ *   <li>{@link com.maemlab.mvcifx.lookup.LookupMetrics}: Counters describing the lookups run by a controller
+ *   <li>{@link com.maemlab.mvcifx.lookup.Fingerprint}: A cheap content fingerprint used to detect unchanged fetch results
+ *   <li>{@link com.maemlab.mvcifx.lookup.SingleFlight}: Deduplicates concurrent identical fetches across controllers,
+ *   so that they share one call to the data source
+ *   <li>{@link com.maemlab.mvcifx.lookup.BatchLoader}: Collects per-row key requests made within a short window
+ *   and loads them with one batched call
+ *   <li>{@link com.maemlab.mvcifx.lookup.LookupPoller}: Periodically runs the lookup of a controller, slowing down
+ *   while its view is hidden
+ *   <li>{@link com.maemlab.mvcifx.lookup.RetryPolicy}: Retries transient fetch failures with a jittered exponential backoff
+ *   <li>{@link com.maemlab.mvcifx.lookup.CircuitBreaker}: Fails fast the calls to a data source while it is unhealthy
+ *   <li>{@link com.maemlab.mvcifx.lookup.LiveDataFeed}: Conflates the updates pushed by a local event source per row key,
+ *   and applies them to the Model at most once per pulse
+ * </ul>
+ *
+ * @see com.maemlab.mvcifx.mvci
+ * @see com.maemlab.mvcifx.mvci.base
+ */
+package com.maemlab.mvcifx.lookup;
@@ -2,6 +2,8 @@ package com.maemlab.mvcifx.mvci;
 
 import javafx.scene.layout.Region;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * The base {@code Controller} interface for the MVCI (Model-View-Controller-Interactor) framework.
  * Controllers are responsible for instantiating the View, Model and Interactor components and coordinating interactions
@@ -22,4 +24,36 @@ public interface Controller<M extends Model> {
      * @return A JavaFX Region representing the root node of the view hierarchy
      */
     Region getView();
+
+    /**
+     * Retrieves the root visual component of the associated View without blocking the JavaFX Application Thread
+     * while it is built, for controllers able to build their view on a background thread.
+     * The returned future completes on the JavaFX Application Thread.
+     *
+     * <p>The default implementation builds the view synchronously through {@link #getView()}.
+     *
+     * @return A future completed with the JavaFX Region representing the root node of the view hierarchy
+     */
+    default CompletableFuture<Region> getViewAsync() {
+        return CompletableFuture.completedFuture(getView());
+    }
+
+    /**
+     * Releases the view, so that its node tree can be garbage collected while the Controller and its Model are kept.
+     * The next call to {@link #getView()} builds a new view from the Model. The view must have been removed from the
+     * scene graph before calling this method.
+     *
+     * <p>The default implementation does nothing: the view is kept.
+     */
+    default void releaseView() {
+    }
+
+    /**
+     * Disposes the controller once its screen is closed for good: the background work it started is cancelled, and
+     * the references it holds to the Model from other threads are released. The controller must not be used afterwards.
+     *
+     * <p>The default implementation does nothing.
+     */
+    default void dispose() {
+    }
 }
@@ -24,4 +24,42 @@ public interface DataSourceController extends Controller {
      *                      the database operation completes successfully
      */
     void lookup(Runnable innerRunnable);
+
+    /**
+     * Prepares the screen for a likely show, e.g. when the user hovers or focuses its menu entry: the data is fetched
+     * at low priority without being applied to the Model, so that the next {@link #lookup(Runnable)} can take the fetch
+     * over while it is still in progress, or apply its result if it completed just before, and the view is optionally
+     * built in the background. Nothing visible is changed.
+     *
+     * <p>The default implementation only pre-builds the view, through {@link #getViewAsync()}.
+     *
+     * @param prebuildView true to also build the view in the background
+     * @see #cancelPrefetch()
+     */
+    default void prefetch(boolean prebuildView) {
+        if (prebuildView) {
+            getViewAsync();
+        }
+    }
+
+    /**
+     * Cancels the prefetch in progress, e.g. when the user moves to another menu entry.
+     *
+     * <p>The default implementation does nothing.
+     */
+    default void cancelPrefetch() {
+    }
+
+    /**
+     * Tells whether a lookup started by {@link #lookup(Runnable)} is still running, so that periodic lookups can skip
+     * a tick instead of piling up behind a slow data source.
+     *
+     * <p>The default implementation returns false.
+     *
+     * @return true if a lookup is running
+     * @see com.maemlab.mvcifx.lookup.LookupPoller
+     */
+    default boolean isLookupRunning() {
+        return false;
+    }
 }
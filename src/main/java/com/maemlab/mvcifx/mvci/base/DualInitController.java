@@ -9,5 +9,13 @@ import com.maemlab.mvcifx.mvci.Controller;
  * @see ParameterizedController
  */
 public interface DualInitController extends DataSourceController, ParameterizedController {
-    // No additional methods needed - combines both patterns
+    @Override
+    default void prefetch(boolean prebuildView) {
+        DataSourceController.super.prefetch(prebuildView);
+    }
+
+    @Override
+    default void cancelPrefetch() {
+        DataSourceController.super.cancelPrefetch();
+    }
 }
@@ -0,0 +1,55 @@
+package com.maemlab.mvcifx.mvci.base;
+
+/**
+ * The context of a running fetch, through which a {@link ProgressInteractor} reports its progress and publishes
+ * partial results.
+ *
+ * <p>All the methods are called on the background thread of the fetch, and return immediately: updates are conflated
+ * and forwarded to the JavaFX Application Thread at most once per pulse, so they can be reported as often as needed,
+ * e.g. for each imported row.
+ *
+ * @param <P> The type of the partial results
+ *
+ * @see ProgressInteractor
+ */
+public interface FetchContext<P> {
+    /**
+     * Reports the progress of the fetch.
+     *
+     * @param workDone The amount of work done
+     * @param max The total amount of work. A negative value means that the progress is indeterminate.
+     */
+    void updateProgress(double workDone, double max);
+
+    /**
+     * Reports the progress of the fetch.
+     *
+     * @param fraction The fraction of work done, between 0 and 1. A negative value means that the progress is indeterminate.
+     */
+    default void updateProgress(double fraction) {
+        updateProgress(fraction, 1);
+    }
+
+    /**
+     * Reports what the fetch is doing, e.g. "Importing page 3 of 12".
+     *
+     * @param message The message
+     */
+    void updateMessage(String message);
+
+    /**
+     * Publishes a partial result. Partial results published within a pulse are passed together to
+     * {@link ProgressInteractor#updateModelWithPartialResults(java.util.List)}.
+     *
+     * @param partial The partial result
+     */
+    void publish(P partial);
+
+    /**
+     * Tells whether the fetch was cancelled or preempted, in which case it should stop as soon as possible.
+     * @return true if the fetch should stop
+     */
+    default boolean isCancelled() {
+        return Thread.currentThread().isInterrupted();
+    }
+}
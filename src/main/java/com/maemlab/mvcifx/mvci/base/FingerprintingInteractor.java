@@ -0,0 +1,37 @@
+package com.maemlab.mvcifx.mvci.base;
+
+import com.maemlab.mvcifx.lookup.Fingerprint;
+import com.maemlab.mvcifx.mvci.Interactor;
+import com.maemlab.mvcifx.mvci.Model;
+
+/**
+ * A specialized {@code Interactor} interface that computes a content fingerprint of the data retrieved by
+ * {@link Interactor#fetchData()}.
+ *
+ * <p>When the fingerprint of a fetch result matches the fingerprint of the last result applied to the Model,
+ * the framework skips {@link Interactor#updateModelAfterFetchingData()}, saving the Model update and the
+ * relayout of the bound controls. This is particularly useful for screens that poll a data source
+ * returning the same data most of the time.
+ *
+ * <p>Example implementation:
+ * <pre>{@code
+ * @Override
+ * public long fingerprint() {
+ *     return Fingerprint.of(nirvanas, Nirvana::getName, Nirvana::getSurname, Nirvana::getAge);
+ * }
+ * }</pre>
+ *
+ * @param <M> The type of Model associated with this interactor, must extend the base {@link Model} class
+ *
+ * @see Fingerprint
+ * @see com.maemlab.mvcifx.lookup.LookupRunner
+ */
+public interface FingerprintingInteractor<M extends Model> extends Interactor<M> {
+    /**
+     * Computes a fingerprint of the data retrieved by the last {@link Interactor#fetchData()} call.
+     * This method is called on the same background thread as {@code fetchData()}, right after it returns.
+     *
+     * @return a 64-bit fingerprint of the fetched data
+     */
+    long fingerprint();
+}
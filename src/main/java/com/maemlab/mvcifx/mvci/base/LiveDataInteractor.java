@@ -0,0 +1,73 @@
+package com.maemlab.mvcifx.mvci.base;
+
+import com.maemlab.mvcifx.mvci.Interactor;
+import com.maemlab.mvcifx.mvci.Model;
+
+import java.util.Collection;
+
+/**
+ * A specialized {@code Interactor} interface for ticking data (prices, statuses...) pushed by a local event source,
+ * e.g. an in-process queue, rather than fetched again.
+ *
+ * <p>Updates are fed to a {@link com.maemlab.mvcifx.lookup.LiveDataFeed}, which conflates them per row key between two
+ * pulses: only the latest update of each row (or the merge of its updates, see {@link #merge(Object, Object)}) reaches
+ * {@link #updateModelWithLiveUpdates(Collection)}, once per pulse on the JavaFX Application Thread. The Interactor
+ * applies them in place to the existing row models, so that a fast feed costs at most one write per row and per frame,
+ * instead of a fetch and a {@code setAll} of the whole list.
+ *
+ * <p>Example implementation:
+ * <pre>{@code
+ * @Override
+ * public String keyOf(Quote quote) {
+ *     return quote.symbol();
+ * }
+ *
+ * @Override
+ * public void updateModelWithLiveUpdates(Collection<Quote> quotes) {
+ *     for (var quote : quotes) {
+ *         var row = rowsBySymbol.get(quote.symbol());
+ *         if (row != null) {
+ *             row.setPrice(quote.price());
+ *         }
+ *     }
+ * }
+ * }</pre>
+ *
+ * @param <M> The type of Model associated with this interactor, must extend the base {@link Model} class
+ * @param <K> The type of the row keys
+ * @param <U> The type of the updates
+ *
+ * @see com.maemlab.mvcifx.lookup.LiveDataFeed
+ */
+public interface LiveDataInteractor<M extends Model, K, U> extends Interactor<M> {
+    /**
+     * Gets the key of the row an update applies to. This method is called on the thread feeding the update.
+     *
+     * @param update The update
+     * @return the key of its row, not null
+     */
+    K keyOf(U update);
+
+    /**
+     * Merges an update with the pending update of the same row, not applied yet. This method is called on the thread
+     * feeding the update.
+     *
+     * <p>The default implementation keeps the latest update, for updates holding the full state of their row.
+     * Partial updates (e.g. price-only and status-only ticks) should be merged instead.
+     *
+     * @param pending The pending update
+     * @param update The new update
+     * @return the update to apply
+     */
+    default U merge(U pending, U update) {
+        return update;
+    }
+
+    /**
+     * Applies the conflated updates received since the previous pulse to the Model, in place.
+     * This method is called on the JavaFX Application Thread, at most once per pulse.
+     *
+     * @param updates The updates, at most one per row key
+     */
+    void updateModelWithLiveUpdates(Collection<U> updates);
+}
@@ -18,4 +18,28 @@ public interface ParameterizedController extends Controller {
      * needs (such as etching initial data based on constructor parameters).
      */
     void load();
+
+    /**
+     * Prepares the screen for a likely show, e.g. when the user hovers or focuses its menu entry, without changing
+     * anything visible.
+     *
+     * <p>The default implementation only pre-builds the view, through {@link #getViewAsync()}: the data of a
+     * ParameterizedController is loaded by its constructor.
+     *
+     * @param prebuildView true to build the view in the background
+     * @see #cancelPrefetch()
+     */
+    default void prefetch(boolean prebuildView) {
+        if (prebuildView) {
+            getViewAsync();
+        }
+    }
+
+    /**
+     * Cancels the prefetch in progress, e.g. when the user moves to another menu entry.
+     *
+     * <p>The default implementation does nothing.
+     */
+    default void cancelPrefetch() {
+    }
 }
@@ -0,0 +1,112 @@
+package com.maemlab.mvcifx.mvci.base;
+
+import com.maemlab.mvcifx.exception.MVCIException;
+import com.maemlab.mvcifx.mvci.Interactor;
+import com.maemlab.mvcifx.mvci.Model;
+
+import java.util.List;
+
+/**
+ * A specialized {@code Interactor} interface for long fetches, which report their progress and publish partial
+ * results while they run, e.g. to show the rows of a long import as they arrive.
+ *
+ * <p>When the framework runs the lookup (see {@link com.maemlab.mvcifx.lookup.LookupRunner}), it calls
+ * {@link #fetchData(FetchContext)} on the background thread instead of {@link Interactor#fetchData()}, and forwards
+ * the reports of the context to the JavaFX Application Thread at most once per pulse:
+ * <ul>
+ *   <li>The progress and the message are conflated, and passed to the progress handler of the runner. State-tracking
+ *       controllers set them to {@code model.progressProperty()} and {@code model.messageProperty()}</li>
+ *   <li>The partial results published since the previous pulse are passed to {@link #updateModelWithPartialResults(List)}</li>
+ * </ul>
+ * Partial results are a preview, and {@link Interactor#updateModelAfterFetchingData()} must still apply the complete
+ * result. When a fetch is started again from the beginning (a retry, or a lookup preempted and run again), fails or is
+ * cancelled, the partial results already applied are void: {@link #discardPartialResults()} is called, so that they
+ * are not shown twice, nor left in the Model.
+ *
+ * <p>Example implementation:
+ * <pre>{@code
+ * @Override
+ * public void fetchData(FetchContext<Nirvana> context) throws MVCIException {
+ *     nirvanas = new ArrayList<>();
+ *     var pages = dao.countPages();
+ *     for (int page = 0; page < pages && !context.isCancelled(); page++) {
+ *         context.updateMessage("Importing page " + (page + 1) + " of " + pages);
+ *         for (var nirvana : dao.getPage(page)) {
+ *             nirvanas.add(nirvana);
+ *             context.publish(nirvana);
+ *         }
+ *         context.updateProgress(page + 1, pages);
+ *     }
+ * }
+ *
+ * @Override
+ * public void updateModelWithPartialResults(List<Nirvana> partials) {
+ *     model.getFetchedNirvanaModelList().addAll(partials.stream().map(NirvanaModel::toModel).toList());
+ *     previewed += partials.size();
+ * }
+ *
+ * @Override
+ * public void discardPartialResults() {
+ *     var rows = model.getFetchedNirvanaModelList();
+ *     rows.remove(rows.size() - previewed, rows.size());
+ *     previewed = 0;
+ * }
+ * }</pre>
+ * ({@code previewed} is also reset in {@code updateModelAfterFetchingData()}.)
+ *
+ * @param <M> The type of Model associated with this interactor, must extend the base {@link Model} class
+ * @param <P> The type of the partial results
+ *
+ * @see FetchContext
+ */
+public interface ProgressInteractor<M extends Model, P> extends Interactor<M> {
+    /**
+     * Retrieves the data, reporting progress and partial results through the context.
+     *
+     * @param context The context of the fetch
+     * @throws MVCIException if data retrieval fails
+     */
+    void fetchData(FetchContext<P> context) throws MVCIException;
+
+    /**
+     * Retrieves the data without reporting anything.
+     *
+     * @throws MVCIException if data retrieval fails
+     */
+    @Override
+    default void fetchData() throws MVCIException {
+        fetchData(new FetchContext<>() {
+            @Override
+            public void updateProgress(double workDone, double max) {
+            }
+
+            @Override
+            public void updateMessage(String message) {
+            }
+
+            @Override
+            public void publish(P partial) {
+            }
+        });
+    }
+
+    /**
+     * Updates the Model with the partial results published since the previous update.
+     * This method is called on the JavaFX Application Thread, at most once per pulse, and before
+     * {@link Interactor#updateModelAfterFetchingData()} for the partial results published before the fetch completed.
+     *
+     * @param partials The partial results, in publication order
+     */
+    void updateModelWithPartialResults(List<P> partials);
+
+    /**
+     * Removes from the Model the partial results applied since the fetch started, because they will not be completed:
+     * the fetch starts again from the beginning, fails or is cancelled. This method is called on the JavaFX Application
+     * Thread, only if partial results were applied.
+     *
+     * <p>The default implementation does nothing, for Interactors whose partial results replace each other rather than
+     * accumulate.
+     */
+    default void discardPartialResults() {
+    }
+}
@@ -0,0 +1,75 @@
+package com.maemlab.mvcifx.mvci.base;
+
+import com.maemlab.mvcifx.lookup.CircuitBreaker;
+import com.maemlab.mvcifx.lookup.RetryPolicy;
+import com.maemlab.mvcifx.mvci.Interactor;
+import com.maemlab.mvcifx.mvci.Model;
+
+/**
+ * A specialized {@code Interactor} interface whose {@link Interactor#fetchData()} is protected against the failures
+ * of its data source.
+ *
+ * <p>When the framework runs the lookup (see {@link com.maemlab.mvcifx.lookup.LookupRunner}), it:
+ * <ul>
+ *   <li>Retries the fetches failing with a {@link com.maemlab.mvcifx.exception.TransientException} (including
+ *       {@link com.maemlab.mvcifx.exception.FetchTimeoutException}) according to {@link #retryPolicy()}, with a
+ *       jittered exponential backoff</li>
+ *   <li>Goes through the {@link #circuitBreaker()} of the data source, shared by all the interactors with the same
+ *       {@link #dataSourceId()}: while it is open, fetches fail fast with a
+ *       {@link com.maemlab.mvcifx.exception.CircuitOpenException} instead of reaching the data source</li>
+ *   <li>Runs the lookups in the bulkhead of the data source, which limits how many of them run and wait at the same
+ *       time, so that a slow data source cannot hold all the lookup workers</li>
+ * </ul>
+ * Implementations classify their failures by throwing a {@link com.maemlab.mvcifx.exception.TransientException},
+ * a {@link com.maemlab.mvcifx.exception.FetchTimeoutException} or a
+ * {@link com.maemlab.mvcifx.exception.PermanentException}.
+ *
+ * <p>Example implementation:
+ * <pre>{@code
+ * @Override
+ * public void fetchData() throws MVCIException {
+ *     try {
+ *         nirvanas = dao.getPersons();
+ *     } catch (SocketTimeoutException e) {
+ *         throw new FetchTimeoutException(e);
+ *     } catch (IOException e) {
+ *         throw new TransientException(e);
+ *     }
+ * }
+ *
+ * @Override
+ * public String dataSourceId() {
+ *     return "nirvana-db";
+ * }
+ * }</pre>
+ *
+ * @param <M> The type of Model associated with this interactor, must extend the base {@link Model} class
+ *
+ * @see RetryPolicy
+ * @see CircuitBreaker
+ */
+public interface ResilientInteractor<M extends Model> extends Interactor<M> {
+    /**
+     * Gets the identifier of the data source, shared by all the interactors using it. It identifies both its circuit
+     * breaker and its bulkhead.
+     * @return the data source identifier
+     */
+    String dataSourceId();
+
+    /**
+     * Gets the policy retrying the failed fetches. By default, {@link RetryPolicy#DEFAULT}.
+     * @return the RetryPolicy of this interactor
+     */
+    default RetryPolicy retryPolicy() {
+        return RetryPolicy.DEFAULT;
+    }
+
+    /**
+     * Gets the breaker of the data source. By default, the one shared by all the interactors with the same
+     * {@link #dataSourceId()}.
+     * @return the CircuitBreaker of the data source
+     */
+    default CircuitBreaker circuitBreaker() {
+        return CircuitBreaker.forDataSource(dataSourceId());
+    }
+}
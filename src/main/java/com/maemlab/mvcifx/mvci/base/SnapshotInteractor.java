@@ -0,0 +1,55 @@
+package com.maemlab.mvcifx.mvci.base;
+
+import com.maemlab.mvcifx.mvci.Interactor;
+import com.maemlab.mvcifx.mvci.Model;
+import com.maemlab.mvcifx.snapshot.SnapshotCodec;
+
+/**
+ * A specialized {@code Interactor} interface whose fetched data can be persisted to a local snapshot,
+ * and restored into the Model at the next start before the first fetch returns.
+ *
+ * <p>When snapshots are enabled on the controller, the framework:
+ * <ul>
+ *   <li>At startup, reads the snapshot on a background thread and passes it to {@link #restoreSnapshot(Object)}
+ *       on the JavaFX Application Thread, unless a fresh result was already applied</li>
+ *   <li>After each fetch, takes {@link #snapshotData()} on the background thread, and saves it once the result
+ *       has been applied to the Model</li>
+ * </ul>
+ * If the Interactor is also a {@link FingerprintingInteractor}, the fingerprint is stored with the snapshot, and a
+ * fresh result identical to the restored one is not applied again.
+ *
+ * @param <M> The type of Model associated with this interactor, must extend the base {@link Model} class
+ * @param <T> The type of the data stored in the snapshot
+ *
+ * @see com.maemlab.mvcifx.snapshot.SnapshotStore
+ * @see com.maemlab.mvcifx.lookup.LookupRunner#enableSnapshots(com.maemlab.mvcifx.snapshot.SnapshotStore)
+ */
+public interface SnapshotInteractor<M extends Model, T> extends Interactor<M> {
+    /**
+     * Gets the identifier of the snapshot, which must be stable across application runs and unique per controller.
+     * @return the snapshot identifier
+     */
+    String snapshotId();
+
+    /**
+     * Gets the codec encoding and decoding the snapshot data.
+     * @return the SnapshotCodec of this interactor
+     */
+    SnapshotCodec<T> snapshotCodec();
+
+    /**
+     * Returns the data retrieved by the last {@link Interactor#fetchData()} call, to be persisted.
+     * This method is called on the same background thread as {@code fetchData()}, right after it returns.
+     * The returned data is encoded later on another background thread, so it must not be modified afterwards.
+     *
+     * @return the data to persist
+     */
+    T snapshotData();
+
+    /**
+     * Applies data restored from a snapshot to the Model. This method is called on the JavaFX Application Thread.
+     *
+     * @param data The restored data
+     */
+    void restoreSnapshot(T data);
+}
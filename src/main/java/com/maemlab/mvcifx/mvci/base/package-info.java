@@ -1,5 +1,5 @@
 /**
- * Provides specialized Controller interfaces of the MVCI framework.
+ * Provides specialized Controller and Interactor interfaces of the MVCI framework.
  *
  * <p>This package extends the base MVCI framework with controllers that handle specific initialization and data interaction patterns:
  * <ul>
@@ -9,7 +9,21 @@
  *   <li>{@link com.maemlab.mvcifx.mvci.base.DualInitController}: Combines both data source interaction and parameter-based initialization capabilities
  * </ul>
  *
- * <p>These interfaces build upon the core MVCI components to provide more specialized controller behaviors.
+ * <p>Interactors can opt into framework capabilities through the following interfaces:
+ * <ul>
+ *   <li>{@link com.maemlab.mvcifx.mvci.base.FingerprintingInteractor}: Computes a content fingerprint of fetched data,
+ *   so that unchanged results are not applied to the Model again
+ *   <li>{@link com.maemlab.mvcifx.mvci.base.SnapshotInteractor}: Persists fetched data to a local snapshot,
+ *   restored into the Model at startup before the first fetch returns
+ *   <li>{@link com.maemlab.mvcifx.mvci.base.ResilientInteractor}: Retries transient fetch failures and goes through
+ *   the circuit breaker of its data source
+ *   <li>{@link com.maemlab.mvcifx.mvci.base.ProgressInteractor}: Reports the progress and partial results of long
+ *   fetches through a {@link com.maemlab.mvcifx.mvci.base.FetchContext}
+ *   <li>{@link com.maemlab.mvcifx.mvci.base.LiveDataInteractor}: Applies the updates of a local event source in place,
+ *   conflated per row key
+ * </ul>
+ *
+ * <p>These interfaces build upon the core MVCI components to provide more specialized controller and interactor behaviors.
  *
  * @see com.maemlab.mvcifx.mvci
  */
@@ -0,0 +1,267 @@
+package com.maemlab.mvcifx.mvci.statetracking;
+
+import javafx.animation.Animation;
+import javafx.application.Platform;
+import javafx.concurrent.Worker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Future;
+
+/**
+ * Tracks the work a controller starts in the background, so that it can all be stopped at once when nobody is
+ * waiting for its results anymore: when the user confirms quitting the screen, or when the controller is disposed.
+ *
+ * <p>Futures are cancelled with {@code cancel(true)}: the thread running a JavaFX {@code Task} or any other
+ * {@code FutureTask} is interrupted, while a {@code CompletableFuture} is only completed as cancelled, which drops its
+ * dependent callbacks but does not interrupt the work that was to complete it. Stream subscriptions are cancelled,
+ * and timers are stopped. Once cancelled, the scope drops its references to them, and so to the Models their callbacks hold, immediately
+ * rather than when they eventually complete. Completed futures are forgotten as the scope goes.
+ *
+ * <p>{@link #cancelAll()} stops the work tracked so far, and the scope can still be used afterwards, e.g. when the
+ * screen is opened again. {@link #close()} also cancels any work tracked afterwards as soon as it is tracked.
+ * Long-lived resources, which outlive a quit of the screen (pollers, write-behind queues, live feeds...), are
+ * registered through {@link #onEachCancel(Runnable)}, run at every cancellation, or {@link #onClose(Runnable)}, run
+ * once when the scope is closed, rather than through {@link #onCancel(Runnable)}.
+ *
+ * <p>Example:
+ * <pre>{@code
+ * var task = getCancellationScope().track(new Task<Void>() {
+ *     // ...
+ * });
+ * new Thread(task).start();
+ * getCancellationScope().trackTimer(refreshTimeline);
+ * }</pre>
+ * This class is thread-safe; timers are stopped on the JavaFX Application Thread.
+ *
+ * @see StateTrackingAbstractController#getCancellationScope()
+ */
+public class CancellationScope {
+    private final List<Runnable> cancellations = new ArrayList<>();
+    private final List<Future<?>> futures = new ArrayList<>();
+    private final List<Runnable> recurringCancellations = new ArrayList<>();
+    private final List<Runnable> closers = new ArrayList<>();
+    private boolean closed;
+
+    /**
+     * Creates a new, empty scope.
+     */
+    public CancellationScope() {
+    }
+
+    /**
+     * Tracks a future, e.g. a JavaFX {@code Task}. It is cancelled with {@code cancel(true)} when the scope is
+     * cancelled, which interrupts a running {@code FutureTask} but not the work behind a {@code CompletableFuture}.
+     *
+     * @param future The future
+     * @param <F> The type of the future
+     * @return the future
+     * @throws IllegalArgumentException if the future is null
+     */
+    public <F extends Future<?>> F track(F future) {
+        if (future == null) {
+            throw new IllegalArgumentException("Future must not be null");
+        }
+
+        synchronized (this) {
+            if (!closed) {
+                futures.removeIf(Future::isDone);
+                futures.add(future);
+                if (future instanceof CompletableFuture<?> completable) {
+                    completable.whenComplete((result, failure) -> forget(future));
+                }
+                return future;
+            }
+        }
+        future.cancel(true);
+        return future;
+    }
+
+    private synchronized void forget(Future<?> future) {
+        futures.remove(future);
+    }
+
+    /**
+     * Tracks a worker which is not a future, e.g. a JavaFX {@code Service}. It is cancelled when the scope is cancelled.
+     *
+     * @param worker The worker
+     * @param <W> The type of the worker
+     * @return the worker
+     * @throws IllegalArgumentException if the worker is null
+     */
+    public <W extends Worker<?>> W trackWorker(W worker) {
+        if (worker == null) {
+            throw new IllegalArgumentException("Worker must not be null");
+        }
+        onCancel(worker::cancel);
+        return worker;
+    }
+
+    /**
+     * Tracks a stream subscription. It is cancelled when the scope is cancelled.
+     *
+     * @param subscription The subscription
+     * @param <S> The type of the subscription
+     * @return the subscription
+     * @throws IllegalArgumentException if the subscription is null
+     */
+    public <S extends Flow.Subscription> S trackSubscription(S subscription) {
+        if (subscription == null) {
+            throw new IllegalArgumentException("Subscription must not be null");
+        }
+        onCancel(subscription::cancel);
+        return subscription;
+    }
+
+    /**
+     * Tracks a timer, e.g. a {@code Timeline} or a {@code PauseTransition}. It is stopped on the JavaFX Application
+     * Thread when the scope is cancelled.
+     *
+     * @param timer The timer
+     * @param <A> The type of the timer
+     * @return the timer
+     * @throws IllegalArgumentException if the timer is null
+     */
+    public <A extends Animation> A trackTimer(A timer) {
+        if (timer == null) {
+            throw new IllegalArgumentException("Timer must not be null");
+        }
+        onCancel(() -> {
+            if (Platform.isFxApplicationThread()) {
+                timer.stop();
+            } else {
+                Platform.runLater(timer::stop);
+            }
+        });
+        return timer;
+    }
+
+    /**
+     * Registers an action run once when the scope is cancelled, e.g. to unsubscribe from an event source.
+     * If the scope is closed, the action is run immediately.
+     *
+     * @param cancellation The action
+     * @throws IllegalArgumentException if the action is null
+     */
+    public void onCancel(Runnable cancellation) {
+        if (cancellation == null) {
+            throw new IllegalArgumentException("Cancellation must not be null");
+        }
+
+        synchronized (this) {
+            if (!closed) {
+                cancellations.add(cancellation);
+                return;
+            }
+        }
+        cancellation.run();
+    }
+
+    /**
+     * Registers an action run each time the scope is cancelled, and kept until the scope is closed, e.g. to stop a
+     * poller or to flush a write-behind queue. If the scope is closed, the action is run immediately.
+     *
+     * @param cancellation The action
+     * @throws IllegalArgumentException if the action is null
+     */
+    public void onEachCancel(Runnable cancellation) {
+        if (cancellation == null) {
+            throw new IllegalArgumentException("Cancellation must not be null");
+        }
+
+        synchronized (this) {
+            if (!closed) {
+                recurringCancellations.add(cancellation);
+                return;
+            }
+        }
+        cancellation.run();
+    }
+
+    /**
+     * Registers an action run once when the scope is closed, after the cancellation of the tracked work, e.g. to
+     * release a resource kept across quits of the screen. If the scope is closed, the action is run immediately.
+     *
+     * @param closer The action
+     * @throws IllegalArgumentException if the action is null
+     */
+    public void onClose(Runnable closer) {
+        if (closer == null) {
+            throw new IllegalArgumentException("Closer must not be null");
+        }
+
+        synchronized (this) {
+            if (!closed) {
+                closers.add(closer);
+                return;
+            }
+        }
+        closer.run();
+    }
+
+    /**
+     * Cancels the work tracked so far, and forgets it. Work tracked afterwards is tracked as usual.
+     * The actions registered through {@link #onEachCancel(Runnable)} are run too, and kept.
+     */
+    public void cancelAll() {
+        List<Future<?>> cancelledFutures;
+        List<Runnable> cancelledActions;
+        List<Runnable> recurringActions;
+        synchronized (this) {
+            cancelledFutures = List.copyOf(futures);
+            cancelledActions = List.copyOf(cancellations);
+            recurringActions = List.copyOf(recurringCancellations);
+            futures.clear();
+            cancellations.clear();
+        }
+
+        cancelledFutures.forEach(future -> future.cancel(true));
+        runReversed(cancelledActions);
+        runReversed(recurringActions);
+    }
+
+    private static void runReversed(List<Runnable> actions) {
+        for (int i = actions.size() - 1; i >= 0; i--) {
+            actions.get(i).run();
+        }
+    }
+
+    /**
+     * Cancels the work tracked so far, and any work tracked afterwards as soon as it is tracked, then runs the actions
+     * registered through {@link #onClose(Runnable)}.
+     */
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        cancelAll();
+
+        List<Runnable> closingActions;
+        synchronized (this) {
+            closingActions = List.copyOf(closers);
+            recurringCancellations.clear();
+            closers.clear();
+        }
+        runReversed(closingActions);
+    }
+
+    /**
+     * Tells whether the scope is closed.
+     * @return true if the scope is closed
+     */
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Gets the number of tracked items waiting to be cancelled.
+     * @return the number of tracked futures, workers, subscriptions, timers and actions, including the recurring
+     *         and closing actions
+     */
+    public synchronized int size() {
+        futures.removeIf(Future::isDone);
+        return futures.size() + cancellations.size() + recurringCancellations.size() + closers.size();
+    }
+}
@@ -0,0 +1,215 @@
+package com.maemlab.mvcifx.mvci.statetracking;
+
+import com.maemlab.mvcifx.exception.CoalescedErrorException;
+import javafx.animation.PauseTransition;
+import javafx.util.Duration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Delivers the errors of a Model to their handler without burying the user under them when they come in storms,
+ * e.g. when a backend goes down and dozens of lookups fail within a second.
+ *
+ * <p>Errors are deduplicated by the type and message of their root cause, and delivered at most once per minimum
+ * interval (1 second by default), measured from the moment the previous delivery returned: a handler showing a modal
+ * dialog receives no error until it is closed. When a single error is pending, it is delivered as is; otherwise the
+ * pending errors are delivered as one {@link CoalescedErrorException} holding each distinct error with its count.
+ *
+ * <p>While the channel is detached (e.g. the view is not in a window), errors are kept instead of being dropped,
+ * and delivered once it is attached again. At most {@code maxDistinct} distinct errors are kept; further distinct
+ * errors are only counted.
+ *
+ * <p>{@link StateTrackingAbstractViewBuilder} delivers the errors of its Model to
+ * {@link StateTrackingAbstractViewBuilder#handleError(javafx.stage.Window, Throwable)} through a channel, which can be
+ * configured through {@link StateTrackingAbstractViewBuilder#getErrorChannel()}.
+ * This class must be used on the JavaFX Application Thread.
+ */
+public class ErrorChannel {
+    private final Consumer<Throwable> handler;
+    private final Map<ErrorKey, Pending> pending = new LinkedHashMap<>();
+    private final PauseTransition timer = new PauseTransition();
+    private Duration minInterval = Duration.seconds(1);
+    private int maxDistinct = 20;
+    private int others;
+    private boolean attached;
+    private boolean delivering;
+    private boolean waiting;
+    private boolean delivered;
+    private long lastDeliveryNanos;
+    private long received;
+    private long deliveries;
+
+    /**
+     * Creates a new channel. It is detached until {@link #setAttached(boolean)} is called.
+     *
+     * @param handler The handler of the errors
+     * @throws IllegalArgumentException if the handler is null
+     */
+    public ErrorChannel(Consumer<Throwable> handler) {
+        if (handler == null) {
+            throw new IllegalArgumentException("Handler must not be null");
+        }
+        this.handler = handler;
+        timer.setOnFinished(evt -> {
+            waiting = false;
+            schedule();
+        });
+    }
+
+    /**
+     * Sets the minimum interval between two deliveries.
+     *
+     * @param minInterval The minimum interval. {@link Duration#ZERO} delivers each error as soon as possible, still
+     *                    deduplicating the errors raised while the handler runs or while the channel is detached.
+     * @throws IllegalArgumentException if the interval is null
+     */
+    public void setMinInterval(Duration minInterval) {
+        if (minInterval == null) {
+            throw new IllegalArgumentException("Min interval must not be null");
+        }
+        this.minInterval = minInterval;
+    }
+
+    /**
+     * Sets the maximum number of distinct errors kept until they are delivered.
+     *
+     * @param maxDistinct The maximum number of distinct errors
+     * @throws IllegalArgumentException if maxDistinct is not positive
+     */
+    public void setMaxDistinct(int maxDistinct) {
+        if (maxDistinct <= 0) {
+            throw new IllegalArgumentException("Max distinct errors must be positive");
+        }
+        this.maxDistinct = maxDistinct;
+    }
+
+    /**
+     * Sets whether errors can be delivered. Errors raised while detached are delivered once attached.
+     *
+     * @param attached true to deliver errors
+     */
+    public void setAttached(boolean attached) {
+        this.attached = attached;
+        schedule();
+    }
+
+    /**
+     * Offers an error to the channel.
+     *
+     * @param error The error. Ignored if null.
+     */
+    public void offer(Throwable error) {
+        if (error == null) {
+            return;
+        }
+
+        received++;
+        var key = ErrorKey.of(error);
+        var entry = pending.get(key);
+        if (entry != null) {
+            entry.count++;
+        } else if (pending.size() < maxDistinct) {
+            pending.put(key, new Pending(error));
+        } else {
+            others++;
+        }
+        schedule();
+    }
+
+    private void schedule() {
+        if (!attached || delivering || waiting || (pending.isEmpty() && others == 0)) {
+            return;
+        }
+
+        var remainingMillis = delivered
+                ? minInterval.toMillis() - (System.nanoTime() - lastDeliveryNanos) / 1_000_000.0
+                : 0;
+        if (remainingMillis > 0) {
+            waiting = true;
+            timer.setDuration(Duration.millis(remainingMillis));
+            timer.playFromStart();
+        } else {
+            deliver();
+        }
+    }
+
+    private void deliver() {
+        Throwable error;
+        if (pending.size() == 1 && others == 0 && pending.values().iterator().next().count == 1) {
+            error = pending.values().iterator().next().error;
+        } else {
+            var errors = new LinkedHashMap<Throwable, Integer>();
+            pending.values().forEach(entry -> errors.put(entry.error, entry.count));
+            error = new CoalescedErrorException(errors, others);
+        }
+        pending.clear();
+        others = 0;
+
+        delivering = true;
+        try {
+            handler.accept(error);
+        } finally {
+            delivering = false;
+            delivered = true;
+            lastDeliveryNanos = System.nanoTime();
+            deliveries++;
+        }
+        schedule();
+    }
+
+    /**
+     * Gets the number of errors offered to the channel.
+     * @return the number of errors received
+     */
+    public long getReceived() {
+        return received;
+    }
+
+    /**
+     * Gets the number of times the handler was called.
+     * @return the number of deliveries
+     */
+    public long getDeliveries() {
+        return deliveries;
+    }
+
+    /**
+     * Gets the number of errors waiting to be delivered.
+     * @return the number of pending errors
+     */
+    public int getPending() {
+        return pending.values().stream().mapToInt(entry -> entry.count).sum() + others;
+    }
+
+    /**
+     * Drops the pending errors and stops any scheduled delivery.
+     */
+    public void clear() {
+        pending.clear();
+        others = 0;
+        timer.stop();
+        waiting = false;
+    }
+
+    private record ErrorKey(Class<?> type, String message) {
+        static ErrorKey of(Throwable error) {
+            var root = error;
+            for (int depth = 0; depth < 32 && root.getCause() != null && root.getCause() != root; depth++) {
+                root = root.getCause();
+            }
+            return new ErrorKey(root.getClass(), Objects.requireNonNullElse(root.getMessage(), ""));
+        }
+    }
+
+    private static final class Pending {
+        private final Throwable error;
+        private int count = 1;
+
+        private Pending(Throwable error) {
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.maemlab.mvcifx.mvci.statetracking;
+
+import com.maemlab.mvcifx.change.ModelChange;
+import javafx.application.Platform;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Applies Model changes optimistically: the change is shown immediately, while the backend call confirming it runs
+ * in the background, and the change is rolled back automatically if the call fails.
+ *
+ * <p>The pre-change state is kept as the compact inverse delta of a {@link ModelChange}, not as a copy of the Model.
+ * When the backend call fails, the change is reverted and the failure is reported through {@code model.setError(...)},
+ * on the JavaFX Application Thread.
+ *
+ * <p>Example, in the delete flow of a state-tracking controller:
+ * <pre>{@code
+ * this.model.deleteConfirmedProperty().addListener((obs, old, confirmed) -> {
+ *     if (confirmed) {
+ *         var item = model.getSelectedItem();
+ *         optimisticUpdater.submit(ModelChange.remove(model.getFetchedNirvanaModelList(), item),
+ *                 () -> dao.delete(item.getId()));
+ *     }
+ * });
+ * }</pre>
+ * This class must be used on the JavaFX Application Thread.
+ *
+ * @see ModelChange
+ * @see StateTrackingModel#errorProperty()
+ */
+public class OptimisticUpdater {
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+    private static final ExecutorService BACKEND_CALLS = Executors.newCachedThreadPool(runnable -> {
+        var thread = new Thread(runnable, "mvcifx-optimistic-" + THREAD_COUNTER.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final StateTrackingModel model;
+    private final AtomicLong rollbacks = new AtomicLong();
+    private int inFlight;
+
+    /**
+     * Creates a new updater.
+     *
+     * @param model The Model receiving the errors of the failed backend calls
+     * @throws IllegalArgumentException if the model is null
+     */
+    public OptimisticUpdater(StateTrackingModel model) {
+        if (model == null) {
+            throw new IllegalArgumentException("Model must not be null");
+        }
+
+        this.model = model;
+    }
+
+    /**
+     * Applies a change to the Model immediately, then runs the backend call on a background thread.
+     * If the call fails, the change is reverted and the failure set as the error of the Model.
+     *
+     * @param change The change, created from the current state of the Model
+     * @param backendCall The call persisting the change
+     * @param <T> The type of the result of the backend call
+     * @return a future completed on the JavaFX Application Thread with the result of the backend call, or with its
+     * failure once the change is reverted
+     * @throws IllegalArgumentException if a parameter is null
+     */
+    public <T> CompletableFuture<T> submit(ModelChange change, Callable<T> backendCall) {
+        if (change == null || backendCall == null) {
+            throw new IllegalArgumentException("Change and backend call must not be null");
+        }
+
+        change.apply();
+        inFlight++;
+
+        var result = new CompletableFuture<T>();
+        BACKEND_CALLS.execute(() -> {
+            try {
+                var value = backendCall.call();
+                Platform.runLater(() -> {
+                    inFlight--;
+                    result.complete(value);
+                });
+            } catch (Throwable e) {
+                Platform.runLater(() -> {
+                    inFlight--;
+                    change.revert();
+                    rollbacks.incrementAndGet();
+                    model.setError(e);
+                    result.completeExceptionally(e);
+                });
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Gets the number of changes whose backend call has not completed yet.
+     * @return the number of unconfirmed changes
+     */
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Gets the number of changes rolled back since the creation of this updater.
+     * @return the number of rollbacks
+     */
+    public long getRollbacks() {
+        return rollbacks.get();
+    }
+}
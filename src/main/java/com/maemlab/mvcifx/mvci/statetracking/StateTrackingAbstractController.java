@@ -0,0 +1,317 @@
+package com.maemlab.mvcifx.mvci.statetracking;
+
+import com.maemlab.mvcifx.mvci.Controller;
+import com.maemlab.mvcifx.change.ModelChange;
+import com.maemlab.mvcifx.lookup.LookupPriority;
+import com.maemlab.mvcifx.mvci.Interactor;
+import com.maemlab.mvcifx.navigation.ViewVisibility;
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.value.ChangeListener;
+import javafx.scene.layout.Region;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The abstract base class of the state-tracking controllers. It holds the state-aware Model, Interactor and ViewBuilder
+ * components, and builds the view.
+ *
+ * <p>The view is built once, either synchronously on the JavaFX Application Thread by {@link #getView()}, or on a
+ * background thread by {@link #getViewAsync()}. JavaFX allows building a node tree off the JavaFX Application Thread
+ * as long as it is not attached to a live scene: the background mode keeps large screens from dropping frames while
+ * they are built, and only the Model binding and attach steps are left to the JavaFX Application Thread. Since the
+ * Model is not thread-safe, only ViewBuilders declaring {@link StateTrackingAbstractViewBuilder#supportsBackgroundBuild()}
+ * are built in the background: their {@code build()} only creates nodes, and the view is connected to the Model by
+ * {@link StateTrackingAbstractViewBuilder#bindToModel(Region)} on the JavaFX Application Thread. They must not create
+ * nodes requiring the JavaFX Application Thread (e.g.: {@code WebView}) nor access a live scene.
+ *
+ * <p>The view can be released through {@link #releaseView()}, e.g. by a {@link com.maemlab.mvcifx.navigation.ViewCache}
+ * evicting a rarely used screen: the Model keeps the state of the screen, and the view is built again on demand.
+ *
+ * <p>The controller tracks whether its view is showing, i.e. visible with all its ancestors in a showing window,
+ * through {@link #showingProperty()}, and derives the priority of its lookups from it (see {@link #lookupPriorityProperty()}).
+ *
+ * <p>The background work started by the controller can be tracked by its {@link #getCancellationScope()}: it is
+ * cancelled when the user confirms quitting the screen, and when the controller is disposed (see {@link #dispose()}),
+ * so that no thread keeps computing results nobody waits for, nor keeps the Model reachable.
+ *
+ * @param <M> The type of StateTrackingModel this controller manages
+ * @param <I> The type of Interactor this controller uses
+ * @param <B> The type of StateTrackingAbstractViewBuilder this controller uses
+ *
+ * @see StateTrackingDataSourceAbstractController
+ * @see StateTrackingParameterizedAbstractController
+ */
+public abstract class StateTrackingAbstractController<M extends StateTrackingModel, I extends Interactor, B extends StateTrackingAbstractViewBuilder<M>>
+        implements Controller {
+    private static final AtomicInteger VIEW_BUILDER_COUNTER = new AtomicInteger();
+    private static final ExecutorService VIEW_BUILDERS = Executors.newFixedThreadPool(2, runnable -> {
+        var thread = new Thread(runnable, "mvcifx-view-builder-" + VIEW_BUILDER_COUNTER.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    protected final M model;
+    protected final I interactor;
+    protected final B viewBuilder;
+    protected Region region;
+    private CompletableFuture<Region> building;
+    private final ViewVisibility visibility = new ViewVisibility();
+    private OptimisticUpdater optimisticUpdater;
+    private final ReadOnlyObjectWrapper<LookupPriority> lookupPriority =
+            new ReadOnlyObjectWrapper<>(this, "lookupPriority", LookupPriority.HIDDEN);
+    private final CancellationScope cancellationScope = new CancellationScope();
+    private final ChangeListener<Boolean> quitConfirmedListener = (obs, oldVal, confirmed) -> {
+        if (confirmed) {
+            cancelInFlightWork();
+        }
+    };
+
+    /**
+     * Creates a new controller instance with the specified components.
+     *
+     * @param model The Model instance
+     * @param interactor The Interactor instance
+     * @param viewBuilder The ViewBuilder instance
+     * @throws IllegalArgumentException if any parameter is null
+     */
+    protected StateTrackingAbstractController(M model, I interactor, B viewBuilder) {
+        if (model == null || interactor == null || viewBuilder == null) {
+            throw new IllegalArgumentException("Model, Interactor and ViewBuilder must not be null");
+        }
+
+        this.model = model;
+        this.interactor = interactor;
+        this.viewBuilder = viewBuilder;
+
+        InvalidationListener priorityUpdater = obs -> lookupPriority.set(visibility.isFocused()
+                ? LookupPriority.FOCUSED
+                : visibility.isShowing() ? LookupPriority.VISIBLE : LookupPriority.HIDDEN);
+        visibility.showingProperty().addListener(priorityUpdater);
+        visibility.focusedProperty().addListener(priorityUpdater);
+        model.quitConfirmedProperty().addListener(quitConfirmedListener);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>If the view is being built in the background, this method waits for it rather than building a second one.
+     * This method must be called on the JavaFX Application Thread.
+     */
+    @Override
+    public Region getView() {
+        if (region == null && building != null) {
+            Region built = null;
+            try {
+                built = building.join();
+            } catch (CompletionException e) {
+                // fall back to a synchronous build
+            }
+            building = null;
+            if (built != null) {
+                attach(built);
+            }
+        }
+        if (region == null) {
+            attach(viewBuilder.build());
+        }
+        visibility.setNode(region);
+        return region;
+    }
+
+    private void attach(Region view) {
+        viewBuilder.bindToModel(view);
+        region = view;
+        visibility.setNode(view);
+    }
+
+    /**
+     * Gets the view, building it on a background thread if it is not built yet and if the ViewBuilder
+     * {@link StateTrackingAbstractViewBuilder#supportsBackgroundBuild() supports it}; otherwise, the view is built
+     * synchronously. The view is bound to the Model on the JavaFX Application Thread, and the returned future completes
+     * there, where the view can be attached to the scene. If the view is released (see {@link #releaseView()}) while it
+     * is being built, the built view is dropped and a new one is built for the pending callers.
+     * This method must be called on the JavaFX Application Thread.
+     *
+     * @return a future completed with the view, or with the failure of the ViewBuilder
+     */
+    @Override
+    public CompletableFuture<Region> getViewAsync() {
+        if (region != null) {
+            return CompletableFuture.completedFuture(region);
+        }
+        if (building == null && !viewBuilder.supportsBackgroundBuild()) {
+            return CompletableFuture.completedFuture(getView());
+        }
+        if (building == null) {
+            building = CompletableFuture.supplyAsync(viewBuilder::build, VIEW_BUILDERS);
+        }
+
+        var future = building;
+        var attached = new CompletableFuture<Region>();
+        future.whenComplete((view, failure) -> Platform.runLater(() -> {
+            if (failure != null) {
+                if (building == future) {
+                    building = null;
+                }
+                attached.completeExceptionally(failure instanceof CompletionException ? failure.getCause() : failure);
+                return;
+            }
+            if (region == null) {
+                if (building != future) {
+                    // the view was released while it was being built: it is dropped rather than bound to the Model
+                    getViewAsync().whenComplete((current, error) -> {
+                        if (error != null) {
+                            attached.completeExceptionally(error);
+                        } else {
+                            attached.complete(current);
+                        }
+                    });
+                    return;
+                }
+                building = null;
+                try {
+                    attach(view);
+                } catch (RuntimeException e) {
+                    attached.completeExceptionally(e);
+                    return;
+                }
+            }
+            attached.complete(region);
+        }));
+        return attached;
+    }
+
+    /**
+     * Builds the view in the background ahead of its first show, if the ViewBuilder
+     * {@link StateTrackingAbstractViewBuilder#supportsBackgroundBuild() supports it}: a prefetch must not build it
+     * on the JavaFX Application Thread. This method must be called on the JavaFX Application Thread.
+     */
+    protected void prebuildView() {
+        if (viewBuilder.supportsBackgroundBuild()) {
+            getViewAsync();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>This method must be called on the JavaFX Application Thread.
+     */
+    @Override
+    public void releaseView() {
+        region = null;
+        building = null;
+        visibility.setNode(null);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The in-flight work is cancelled (see {@link #cancelInFlightWork()}), the cancellation scope is closed so that
+     * work tracked afterwards is cancelled immediately, and the view is released. This method must be called on the
+     * JavaFX Application Thread.
+     */
+    @Override
+    public void dispose() {
+        model.quitConfirmedProperty().removeListener(quitConfirmedListener);
+        cancelInFlightWork();
+        cancellationScope.close();
+        releaseView();
+    }
+
+    /**
+     * Cancels the background work of this controller, when the user confirms quitting the screen or when the controller
+     * is disposed. The default implementation cancels the work tracked by {@link #getCancellationScope()}.
+     * Subclasses can override it to stop other work, calling the super implementation.
+     * This method must be called on the JavaFX Application Thread.
+     */
+    protected void cancelInFlightWork() {
+        cancellationScope.cancelAll();
+    }
+
+    /**
+     * Gets the scope tracking the background work of this controller: tasks, futures, stream subscriptions and timers.
+     * @return the CancellationScope of this controller
+     */
+    public CancellationScope getCancellationScope() {
+        return cancellationScope;
+    }
+
+    /**
+     * Tells whether the view of this controller is showing: built, visible with all its ancestors, and in the scene
+     * of a showing window.
+     *
+     * @return the read-only showing property
+     * @see ViewVisibility
+     */
+    public ReadOnlyBooleanProperty showingProperty() {
+        return visibility.showingProperty();
+    }
+
+    public boolean isShowing() {
+        return visibility.isShowing();
+    }
+
+    /**
+     * Gets the priority of the lookups of this controller, derived from its view: {@link LookupPriority#FOCUSED} when it
+     * holds the focus, {@link LookupPriority#VISIBLE} when it is showing, {@link LookupPriority#HIDDEN} otherwise.
+     *
+     * @return the read-only lookup priority property
+     */
+    public ReadOnlyObjectProperty<LookupPriority> lookupPriorityProperty() {
+        return lookupPriority.getReadOnlyProperty();
+    }
+
+    public LookupPriority getLookupPriority() {
+        return lookupPriority.get();
+    }
+
+    /**
+     * Applies a change to the Model immediately, and rolls it back with {@code model.setError(...)} if the backend call
+     * persisting it fails. This method must be called on the JavaFX Application Thread.
+     *
+     * <p>The future is tracked by the {@linkplain #getCancellationScope() cancellation scope}: when the user confirms
+     * quitting the screen or the controller is disposed, it is cancelled and its callbacks are dropped. The backend call
+     * itself is not interrupted, since the change was already shown as done.
+     *
+     * @param change The change, created from the current state of the Model
+     * @param backendCall The call persisting the change, run on a background thread
+     * @param <T> The type of the result of the backend call
+     * @return a future completed on the JavaFX Application Thread with the result of the backend call
+     * @see OptimisticUpdater#submit(ModelChange, Callable)
+     */
+    protected <T> CompletableFuture<T> applyOptimistically(ModelChange change, Callable<T> backendCall) {
+        if (optimisticUpdater == null) {
+            optimisticUpdater = new OptimisticUpdater(model);
+        }
+        return getCancellationScope().track(optimisticUpdater.submit(change, backendCall));
+    }
+
+    /**
+     * Creates a queue writing the confirmed saves and deletes of this controller in batches, reporting failures through
+     * the Model. The queue is registered with the {@linkplain #getCancellationScope() cancellation scope}: each time the
+     * user confirms quitting the screen, and when the controller is disposed, its pending operations are flushed at
+     * once rather than dropped, since they were confirmed.
+     *
+     * @param writer The writer of the batches
+     * @param <K> The type of the keys identifying the entities
+     * @param <V> The type of the entities
+     * @return the queue
+     * @throws IllegalArgumentException if the writer is null
+     * @see WriteBehindQueue
+     */
+    protected <K, V> WriteBehindQueue<K, V> openWriteBehindQueue(WriteBehindQueue.BatchWriter<K, V> writer) {
+        var queue = new WriteBehindQueue<>(model, writer);
+        getCancellationScope().onEachCancel(queue::flush);
+        return queue;
+    }
+}
@@ -1,6 +1,7 @@
 package com.maemlab.mvcifx.mvci.statetracking;
 
 import com.maemlab.mvcifx.mvci.ViewBuilder;
+import javafx.beans.value.ChangeListener;
 import javafx.scene.layout.Region;
 import javafx.stage.Window;
 import javafx.util.Builder;
@@ -12,7 +13,8 @@ import javafx.util.Builder;
  *
  * <p>The builder automatically sets up window-level listeners for the following {@link StateTrackingModel} properties:
  * <ul>
- *   <li>{@code error} - Triggers error handling when an exception or error occurs</li>
+ *   <li>{@code error} - Triggers error handling when an exception or error occurs, through an {@link ErrorChannel}
+ *       deduplicating and rate-limiting error storms</li>
  *   <li>{@code deleteRequested} - Manages delete confirmation dialogs and updates {@code deleteConfirmed}</li>
  *   <li>{@code saveRequested} - Handles save operations and updates {@code saveComplete}</li>
  *   <li>{@code quitRequested} - Manages application exit confirmation and updates {@code quitConfirmed}</li>
@@ -37,6 +39,9 @@ import javafx.util.Builder;
  *   </li>
  *   <li>Implement the {@link Builder#build()} method to create your view hierarchy</li>
  *   <li>Call {@link #setupModelListeners(Region)} in your build method to enable state tracking</li>
+ *   <li>Optionally, to let the controller build the view on a background thread, leave every access to the Model
+ *       (bindings, list items, listeners, {@link #setupModelListeners(Region)}) to {@link #bindToModel(Region)}, and
+ *       return true from {@link #supportsBackgroundBuild()}</li>
  *   <li>When using post-operation actions, set appropriate callbacks using {@link #setOnSaveConfirmed(Runnable)},
  *        {@link #setOnDeleteConfirmed(Runnable)} or {@link #setOnQuitConfirmed(Runnable)}</li>
  * </ol>
@@ -90,6 +95,30 @@ public abstract class StateTrackingAbstractViewBuilder<M extends StateTrackingMo
     protected Runnable onDeleteConfirmed;
     protected Runnable onQuitConfirmed;
 
+    private Region trackedRoot;
+    private Window trackedWindow;
+    private final ChangeListener<Window> windowListener = (obs, oldWindow, newWindow) -> trackWindow(newWindow);
+    private final ErrorChannel errorChannel = new ErrorChannel(error -> handleError(trackedWindow, error));
+    private final ChangeListener<Throwable> errorListener = (obs, oldVal, error) -> onError(error);
+    private final ChangeListener<Boolean> deleteRequestedListener = (obs, oldVal, requesting) -> onDeleteRequested(requesting);
+    private final ChangeListener<Boolean> deleteConfirmedListener = (obs, oldVal, confirmed) -> {
+        if (confirmed) {
+            handleDeleteConfirmation(trackedWindow);
+        }
+    };
+    private final ChangeListener<Boolean> saveRequestedListener = (obs, oldVal, saveRequested) -> onSaveRequested(saveRequested);
+    private final ChangeListener<Boolean> saveCompleteListener = (obs, oldVal, complete) -> {
+        if (complete) {
+            handleSaveCompletion(trackedWindow);
+        }
+    };
+    private final ChangeListener<Boolean> quitRequestedListener = (obs, oldVal, requesting) -> onQuitRequested(requesting);
+    private final ChangeListener<Boolean> quitConfirmedListener = (obs, oldVal, confirmed) -> {
+        if (confirmed) {
+            handleQuitConfirmation(trackedWindow);
+        }
+    };
+
     /**
      * Creates a new ViewBuilder instance with the specified {@link StateTrackingModel}.
      * The provided model will be used to track application state and trigger UI updates.
@@ -99,6 +128,10 @@ public abstract class StateTrackingAbstractViewBuilder<M extends StateTrackingMo
      */
     public StateTrackingAbstractViewBuilder(M model) {
         super(model);// Set the inherited protected field
+
+        // errors are taken from the Model as they are raised, so that none is lost while the view is not in a window
+        model.errorProperty().addListener(errorListener);
+        onError(model.errorProperty().get());
     }
 
     /**
@@ -167,8 +200,8 @@ public abstract class StateTrackingAbstractViewBuilder<M extends StateTrackingMo
      * before setting up state tracking. This ensures that window-level dialogs can be properly parented
      * and positioned. The state tracking includes:
      * <ul>
-     *   <li>Error handling: When {@code model.errorProperty()} changes to a non-null value,
-     *       {@link #handleError(Window, Throwable)} is called and the error is automatically cleared</li>
+     *   <li>Error handling: When {@code model.errorProperty()} changes to a non-null value, the error is automatically
+     *       cleared and passed to {@link #handleError(Window, Throwable)} through the {@link #getErrorChannel() error channel}</li>
      *   <li>Delete confirmation: When {@code model.deleteRequestedProperty()} becomes true,
      *       {@link #handleDeleteRequest(Window)} is called and the result is stored in
      *       {@code deleteConfirmed}. When {@code deleteConfirmed} becomes true, {@link #handleDeleteConfirmation(Window)} is called.</li>
@@ -197,105 +230,170 @@ public abstract class StateTrackingAbstractViewBuilder<M extends StateTrackingMo
      * <p>The method automatically resets request flags after handling them to prevent repeated triggers.
      * All handlers are called on the JavaFX Application Thread as they involve UI operations.
      *
+     * <p>The model listeners are attached while the root is in a window only, and there is one set of them per builder:
+     * a view can be removed from the scene, or built again, without handlers running twice. Requests and errors raised
+     * while the view is not in a window are handled as soon as it is shown again.
+     *
      * @param root The root node of the view hierarchy. Must not be null.
      * @throws IllegalArgumentException if root is null
      * @throws IllegalStateException if a post-operation action is requested but no callback is set
      */
     protected void setupModelListeners(Region root) {
-        root.sceneProperty().addListener((obsScene, oldScene, newScene) ->{
-            if (newScene != null) {// Error handling
-                newScene.windowProperty().addListener((obsWindow, oldWindow, newWindow) -> {
-                    if (newWindow != null) {
-                        model.errorProperty().addListener((obs, oldVal, error) -> {
-                            if (error != null) {
-                                handleError(newWindow, error);
-                                model.setError(null); // Reset error after handling
-                            }
-                        });
+        if (root == null) {
+            throw new IllegalArgumentException("Root must not be null");
+        }
+        if (root == trackedRoot) {
+            return; // already set up, by build() and then by bindToModel(Region)
+        }
 
-                        // Delete request handling
-                        model.deleteRequestedProperty().addListener((obs, oldVal, requesting) -> {
-                            if (requesting) {
-                                var confirmed = handleDeleteRequest(newWindow);
-                                if (confirmed) {
-                                    if (model.isPerformActionAfterDeletion() && onDeleteConfirmed == null) {
-                                        throw new IllegalStateException(
-                                                "Action after deletion was requested but no callback was set. Call setOnDeleteConfirmed first.");
-                                    }
-                                    if (model.isPerformActionAfterDeletion()) {
-                                        onDeleteConfirmed.run();
-                                    }
-                                }
-                                model.setDeleteConfirmed(confirmed);
-                                model.setDeleteRequested(false);
-                            }
-                        });
+        trackedRoot = root;
+        root.sceneProperty().addListener((obsScene, oldScene, newScene) -> {
+            if (root != trackedRoot) {
+                return; // a previous view, replaced by a later build
+            }
+            if (oldScene != null) {
+                oldScene.windowProperty().removeListener(windowListener);
+            }
+            if (newScene != null) {
+                newScene.windowProperty().addListener(windowListener);
+                trackWindow(newScene.getWindow());
+            } else {
+                trackWindow(null);
+            }
+        });
+    }
 
-                        model.deleteConfirmedProperty().addListener((obs, oldVal, confirmed) -> {
-                            if(confirmed) {
-                                handleDeleteConfirmation(newWindow);
-                            }
-                        });
+    /**
+     * Connects a view returned by {@link #build()} to the Model: bindings to Model properties, Model lists set as
+     * items, listeners on the Model. The Model is not thread-safe, so this step always runs on the JavaFX Application
+     * Thread, even when the node tree was built on a background thread. It runs once per view, before the view is
+     * returned by the controller.
+     *
+     * <p>The default implementation calls {@link #setupModelListeners(Region)}, which has no effect if
+     * {@link #build()} already did.
+     *
+     * @param root The root node returned by {@link #build()}
+     */
+    protected void bindToModel(Region root) {
+        setupModelListeners(root);
+    }
 
-                        // Save request handling
-                        model.saveRequestedProperty().addListener((obs, oldVal, saveRequested) -> {
-                            if (saveRequested) {
-                                var success = handleSaveRequest(newWindow);
-                                if (success) {
-                                    if (model.isPerformActionAfterSave() && onSaveConfirmed == null) {
-                                        throw new IllegalStateException(
-                                                "Action after save was requested but no callback was set. Call setOnSaveConfirmed first.");
-                                    }
-                                    if (model.isPerformActionAfterSave()) {
-                                        onSaveConfirmed.run();
-                                    }
-                                }
-                                model.setSaveComplete(success);
-                                model.setSaveRequested(false);
-                            }
-                        });
+    /**
+     * Tells whether {@link #build()} can run on a background thread: it only creates nodes, and leaves every access to
+     * the Model to {@link #bindToModel(Region)}. Otherwise, the controller builds the view on the JavaFX Application
+     * Thread, even when it is requested through {@code getViewAsync()}.
+     *
+     * <p>The default implementation returns false.
+     *
+     * @return true if the view can be built on a background thread
+     */
+    protected boolean supportsBackgroundBuild() {
+        return false;
+    }
+
+    private void trackWindow(Window window) {
+        if (window == trackedWindow) {
+            return;
+        }
+
+        var wasTracking = trackedWindow != null;
+        trackedWindow = window;
+        if (window == null) {
+            errorChannel.setAttached(false);
+            model.deleteRequestedProperty().removeListener(deleteRequestedListener);
+            model.deleteConfirmedProperty().removeListener(deleteConfirmedListener);
+            model.saveRequestedProperty().removeListener(saveRequestedListener);
+            model.saveCompleteProperty().removeListener(saveCompleteListener);
+            model.quitRequestedProperty().removeListener(quitRequestedListener);
+            model.quitConfirmedProperty().removeListener(quitConfirmedListener);
+        } else if (!wasTracking) {
+            model.deleteRequestedProperty().addListener(deleteRequestedListener);
+            model.deleteConfirmedProperty().addListener(deleteConfirmedListener);
+            model.saveRequestedProperty().addListener(saveRequestedListener);
+            model.saveCompleteProperty().addListener(saveCompleteListener);
+            model.quitRequestedProperty().addListener(quitRequestedListener);
+            model.quitConfirmedProperty().addListener(quitConfirmedListener);
+
+            // handle the requests raised while the view was not in a window
+            errorChannel.setAttached(true);
+            onDeleteRequested(model.deleteRequestedProperty().get());
+            onSaveRequested(model.saveRequestedProperty().get());
+            onQuitRequested(model.quitRequestedProperty().get());
+        }
+    }
+
+    private void onError(Throwable error) {
+        if (error != null) {
+            model.setError(null); // Reset error, so that the same error raised again is noticed
+            errorChannel.offer(error);
+        }
+    }
+
+    /**
+     * Gets the channel delivering the errors of the Model to {@link #handleError(Window, Throwable)}. Errors are
+     * deduplicated, delivered at most once per second by default, and kept while the view is not in a window.
+     * @return the error channel of this builder
+     */
+    public ErrorChannel getErrorChannel() {
+        return errorChannel;
+    }
 
-                        // Save complete handling
-                        model.saveCompleteProperty().addListener((obs, oldVal, complete) -> {
-                            if (complete) {
-                                handleSaveCompletion(newWindow);
-                            }
-                        });
+    private void onDeleteRequested(boolean requesting) {
+        if (requesting) {
+            var confirmed = handleDeleteRequest(trackedWindow);
+            if (confirmed) {
+                if (model.isPerformActionAfterDeletion() && onDeleteConfirmed == null) {
+                    throw new IllegalStateException(
+                            "Action after deletion was requested but no callback was set. Call setOnDeleteConfirmed first.");
+                }
+                if (model.isPerformActionAfterDeletion()) {
+                    onDeleteConfirmed.run();
+                }
+            }
+            model.setDeleteConfirmed(confirmed);
+            model.setDeleteRequested(false);
+        }
+    }
 
-                        // Quit request handling
-                        model.quitRequestedProperty().addListener((obs, oldVal, requesting) -> {
-                            if (requesting) {
-                                var confirmed = handleQuitRequest(newWindow);
-                                if (confirmed) {
-                                    if (model.isPerformActionAfterQuit() && onQuitConfirmed == null) {
-                                        throw new IllegalStateException(
-                                                "Action after quit was requested but no callback was set. Call setOnQuitConfirmed first.");
-                                    }
-                                    if (model.isPerformActionAfterQuit()) {
-                                        onQuitConfirmed.run();
-                                    }
-                                }
-                                model.setQuitConfirmed(confirmed);
-                                model.setQuitRequested(false);
-                            }
-                        });
+    private void onSaveRequested(boolean saveRequested) {
+        if (saveRequested) {
+            var success = handleSaveRequest(trackedWindow);
+            if (success) {
+                if (model.isPerformActionAfterSave() && onSaveConfirmed == null) {
+                    throw new IllegalStateException(
+                            "Action after save was requested but no callback was set. Call setOnSaveConfirmed first.");
+                }
+                if (model.isPerformActionAfterSave()) {
+                    onSaveConfirmed.run();
+                }
+            }
+            model.setSaveComplete(success);
+            model.setSaveRequested(false);
+        }
+    }
 
-                        // Quit confirmed handling
-                        model.quitConfirmedProperty().addListener((obs, oldVal, confirmed) -> {
-                            if (confirmed) {
-                                handleQuitConfirmation(newWindow);
-                            }
-                        });
-                    }
-                });
+    private void onQuitRequested(boolean requesting) {
+        if (requesting) {
+            var confirmed = handleQuitRequest(trackedWindow);
+            if (confirmed) {
+                if (model.isPerformActionAfterQuit() && onQuitConfirmed == null) {
+                    throw new IllegalStateException(
+                            "Action after quit was requested but no callback was set. Call setOnQuitConfirmed first.");
+                }
+                if (model.isPerformActionAfterQuit()) {
+                    onQuitConfirmed.run();
+                }
             }
-        });
+            model.setQuitConfirmed(confirmed);
+            model.setQuitRequested(false);
+        }
     }
 
     /**
      * Handles errors reported by the model. This method is called automatically when the model's
-     * {@code error} changes to a non-null value. The error will be automatically cleared
-     * after this method returns.
+     * {@code error} changes to a non-null value, and the error is automatically cleared.
+     * When several errors are raised in a short time, they are delivered as one
+     * {@link com.maemlab.mvcifx.exception.CoalescedErrorException} (see {@link ErrorChannel}).
      *
      * <p>Implementations should display or log the error appropriately, typically using a dialog
      * or alert. Since this method is called on the JavaFX Application Thread, it's safe to show
@@ -1,9 +1,19 @@
 package com.maemlab.mvcifx.mvci.statetracking;
 
+import com.maemlab.mvcifx.lookup.LiveDataFeed;
+import com.maemlab.mvcifx.lookup.LookupMetrics;
+import com.maemlab.mvcifx.lookup.LookupPoller;
+import com.maemlab.mvcifx.lookup.LookupRunner;
 import com.maemlab.mvcifx.mvci.Interactor;
 
 import com.maemlab.mvcifx.mvci.base.DataSourceController;
-import javafx.scene.layout.Region;
+import com.maemlab.mvcifx.mvci.base.FingerprintingInteractor;
+import com.maemlab.mvcifx.mvci.base.LiveDataInteractor;
+import com.maemlab.mvcifx.snapshot.SnapshotStore;
+import javafx.beans.value.ChangeListener;
+import javafx.util.Duration;
+
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * An abstract implementation of the {@link DataSourceController} interface that provides state tracking capabilities.
@@ -16,21 +26,28 @@ import javafx.scene.layout.Region;
  *   <li>An {@link Interactor} for business logic and data operations
  * </ul>
  *
+ * <p>The default {@link #lookup(Runnable)} implementation runs the lookup through a {@link LookupRunner}: failures
+ * are reported through {@code model.errorProperty()}, and if the Interactor is a {@link FingerprintingInteractor},
+ * results identical to the last applied one are not applied again. Lookups are scheduled with the priority of
+ * {@link #lookupPriorityProperty()}, so the lookups of the focused screen run before those of hidden screens. If the
+ * Interactor is a {@link com.maemlab.mvcifx.mvci.base.ProgressInteractor}, its progress and message are set to
+ * {@code model.progressProperty()} and {@code model.messageProperty()}. Subclasses can override it for custom behavior.
+ * The lookups in progress are cancelled when the user confirms quitting the screen, or when the controller is disposed.
+ *
  * @param <M> The type of StateTrackingModel this controller manages
  * @param <I> The type of Interactor this controller uses
  * @param <B> The type of StateTrackingAbstractViewBuilder this controller uses
  *
  * @see DataSourceController
+ * @see StateTrackingAbstractController
  * @see StateTrackingModel
  * @see StateTrackingAbstractViewBuilder
  * @see Interactor
+ * @see LookupRunner
  */
 public abstract class StateTrackingDataSourceAbstractController<M extends StateTrackingModel, I extends Interactor, B extends StateTrackingAbstractViewBuilder<M>>
-        implements DataSourceController {
-    protected final M model;
-    protected final I interactor;
-    protected final B viewBuilder;
-    protected Region region;
+        extends StateTrackingAbstractController<M, I, B> implements DataSourceController {
+    protected final LookupRunner lookupRunner;
 
     /**
      * Creates a new controller instance with the specified components.
@@ -41,23 +58,149 @@ public abstract class StateTrackingDataSourceAbstractController<M extends StateT
      * @throws IllegalArgumentException if any parameter is null
      */
     public StateTrackingDataSourceAbstractController(M model, I interactor, B viewBuilder) {
-        if (model == null || interactor == null || viewBuilder == null) {
-            throw new IllegalArgumentException("Model, Interactor and ViewBuilder must not be null");
-        }
+        super(model, interactor, viewBuilder);
+        this.lookupRunner = new LookupRunner(interactor);
+        this.lookupRunner.setPriority(lookupPriorityProperty());
+        this.lookupRunner.setOnProgress((progress, message) -> {
+            model.setProgress(progress);
+            model.setMessage(message);
+        });
+    }
 
-        this.model = model;
-        this.interactor = interactor;
-        this.viewBuilder = viewBuilder;
+    @Override
+    public void lookup(Runnable innerRunnable) {
+        lookupRunner.run(innerRunnable, model::setError);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The data is fetched through {@link LookupRunner#prefetch()}, at {@link com.maemlab.mvcifx.lookup.LookupPriority#PREFETCH}
+     * priority. The view is only pre-built if the ViewBuilder supports building it in the background.
+     */
     @Override
-    public Region getView() {
-        if (region == null) {
-            region = viewBuilder.build();
+    public void prefetch(boolean prebuildView) {
+        lookupRunner.prefetch();
+        if (prebuildView) {
+            prebuildView();
         }
-        return region;
     }
 
     @Override
-    public abstract void lookup(Runnable innerRunnable);
+    public void cancelPrefetch() {
+        lookupRunner.cancelPrefetch();
+    }
+
+    @Override
+    public boolean isLookupRunning() {
+        return lookupRunner.isRunning();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The lookups in progress and the prefetch are cancelled too.
+     */
+    @Override
+    protected void cancelInFlightWork() {
+        super.cancelInFlightWork();
+        lookupRunner.cancel();
+        lookupRunner.cancelPrefetch();
+    }
+
+    /**
+     * Suspends the Model updates of this controller while its view is not showing. Lookups still run, but their results
+     * are conflated: only the latest one is kept, and applied once when the view is shown again. This saves the
+     * rendering of screens nobody sees, e.g. polled screens hidden behind another one.
+     *
+     * @param suspended true to suspend the Model updates while the view is hidden, false to always apply them
+     * @see LookupRunner#setActive(javafx.beans.value.ObservableBooleanValue)
+     */
+    public void setSuspendedWhileHidden(boolean suspended) {
+        lookupRunner.setActive(suspended ? showingProperty() : null);
+    }
+
+    /**
+     * Opens a feed applying the updates pushed by a local event source to the Model, conflated per row key between
+     * two pulses. The Interactor must be a {@link com.maemlab.mvcifx.mvci.base.LiveDataInteractor}. Updates are only
+     * conflated while the view is not showing, and applied once it is shown; failures are reported through
+     * {@code model.errorProperty()}. The feed is kept while the screen is quit and shown again, and closed when the
+     * controller is disposed. This method must be called on the JavaFX Application Thread.
+     *
+     * @param <K> The type of the row keys
+     * @param <U> The type of the updates
+     * @return the feed, to be connected to the event source
+     * @throws IllegalStateException if the Interactor is not a LiveDataInteractor
+     * @see LiveDataFeed#connect(java.util.concurrent.BlockingQueue)
+     */
+    @SuppressWarnings("unchecked")
+    public <K, U> LiveDataFeed<K, U> openLiveFeed() {
+        if (!(interactor instanceof LiveDataInteractor<?, ?, ?> liveData)) {
+            throw new IllegalStateException("Interactor must be a LiveDataInteractor");
+        }
+
+        var feed = new LiveDataFeed<>((LiveDataInteractor<?, K, U>) liveData);
+        feed.setActive(showingProperty());
+        feed.setOnError(model::setError);
+        getCancellationScope().onClose(feed::close);
+        return feed;
+    }
+
+    /**
+     * Creates a poller running the lookup of this controller periodically, slowing down while the view is not showing
+     * (see {@link LookupPoller#setHiddenInterval(Duration)}). The poller is stopped with the other in-flight work each
+     * time the user confirms quitting the screen, and started again when the view is shown again. It is stopped for good
+     * when the controller is disposed, so that it never runs the lookup of a disposed controller.
+     * This method must be called on the JavaFX Application Thread.
+     *
+     * @param interval The interval between two polls while the view is showing
+     * @return the poller, to be started
+     * @throws IllegalArgumentException if the interval is null
+     * @see LookupPoller#start()
+     */
+    public LookupPoller openPoller(Duration interval) {
+        var poller = new LookupPoller(this, interval);
+        poller.setShowing(showingProperty());
+
+        var stoppedByQuit = new AtomicBoolean();
+        ChangeListener<Boolean> restarter = (obs, wasShowing, showing) -> {
+            if (showing && stoppedByQuit.getAndSet(false)) {
+                poller.start();
+            }
+        };
+        showingProperty().addListener(restarter);
+        var scope = getCancellationScope();
+        scope.onEachCancel(() -> {
+            if (poller.isStarted()) {
+                stoppedByQuit.set(true);
+                poller.stop();
+            }
+        });
+        scope.onClose(() -> {
+            showingProperty().removeListener(restarter);
+            poller.setShowing(null);
+            poller.stop();
+        });
+        return poller;
+    }
+
+    /**
+     * Enables on-disk snapshots of the data applied by this controller, and restores the last snapshot into the Model.
+     * This method has no effect if the Interactor is not a {@link com.maemlab.mvcifx.mvci.base.SnapshotInteractor}.
+     * It should typically be called at the end of the controller's constructor, before the first lookup.
+     *
+     * @param store The store holding the snapshots. Must not be null.
+     * @see LookupRunner#enableSnapshots(SnapshotStore)
+     */
+    public void enableSnapshots(SnapshotStore store) {
+        lookupRunner.enableSnapshots(store);
+    }
+
+    /**
+     * Gets the metrics of the lookups run by this controller.
+     * @return the LookupMetrics of this controller
+     */
+    public LookupMetrics getMetrics() {
+        return lookupRunner.getMetrics();
+    }
 }
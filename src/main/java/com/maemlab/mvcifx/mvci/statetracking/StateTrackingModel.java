@@ -1,15 +1,26 @@
 package com.maemlab.mvcifx.mvci.statetracking;
 
+import com.maemlab.mvcifx.change.DirtyFields;
 import com.maemlab.mvcifx.mvci.Model;
 import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.Property;
 import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
 
 /**
  * An implementation of the {@link Model} interface that provides state tracking through observable properties.
  * These properties can be bound to UI components to automatically reflect application state changes.
  *
+ * <p>Subclasses can declare the fields saved by the Interactor through {@link #trackDirtyFields(Property[])}: the
+ * {@link DirtyFields} tracker returned by {@link #getDirtyFields()} then tells which fields changed since the last
+ * successful save. It is not reset automatically: {@code saveComplete} turns true before the save path reads the
+ * changes, so the save path calls {@link DirtyFields#reset()} once the write succeeded.
+ *
  * @see Model
  * @see StateTrackingAbstractViewBuilder
  * @see javafx.beans.property.Property
@@ -22,6 +33,8 @@ public class StateTrackingModel implements Model {
     private final BooleanProperty saveComplete = new SimpleBooleanProperty(false);
     private final BooleanProperty quitRequested = new SimpleBooleanProperty(false);
     private final BooleanProperty quitConfirmed = new SimpleBooleanProperty(false);
+    private final DoubleProperty progress = new SimpleDoubleProperty(0);
+    private final StringProperty message = new SimpleStringProperty("");
 
     /**
      * A property that controls whether an action should be taken after a successful deletion operation.
@@ -56,6 +69,8 @@ public class StateTrackingModel implements Model {
      */
     private final BooleanProperty performActionAfterQuit = new SimpleBooleanProperty(false);
 
+    private final DirtyFields dirtyFields = new DirtyFields();
+
     /**
      * Gets the property tracking error states in the application.
      * @return an ObjectProperty containing any error that has occurred
@@ -140,6 +155,33 @@ public class StateTrackingModel implements Model {
         quitConfirmed.set(b);
     }
 
+    /**
+     * Gets the property holding the progress of the running lookup, reported by a
+     * {@link com.maemlab.mvcifx.mvci.base.ProgressInteractor}: between 0 and 1, or -1 while indeterminate.
+     * It can be bound to a {@code ProgressBar}.
+     * @return a DoubleProperty tracking the lookup progress
+     */
+    public DoubleProperty progressProperty() {
+        return progress;
+    }
+
+    public void setProgress(double value) {
+        progress.set(value);
+    }
+
+    /**
+     * Gets the property holding the message of the running lookup, reported by a
+     * {@link com.maemlab.mvcifx.mvci.base.ProgressInteractor}.
+     * @return a StringProperty tracking the lookup message
+     */
+    public StringProperty messageProperty() {
+        return message;
+    }
+
+    public void setMessage(String value) {
+        message.set(value);
+    }
+
     public BooleanProperty performActionAfterDeletionProperty() {
         return performActionAfterDeletion;
     }
@@ -175,4 +217,26 @@ public class StateTrackingModel implements Model {
     public boolean isPerformActionAfterQuit() {
         return performActionAfterQuit.get();
     }
+
+    /**
+     * Tracks the changes of the specified fields, named after their property name.
+     * This method should typically be called in the constructor of the subclass.
+     *
+     * @param fields The properties holding the fields saved by the Interactor
+     * @throws IllegalArgumentException if a property has no name, or is already tracked
+     * @see DirtyFields#track(Property[])
+     */
+    protected void trackDirtyFields(Property<?>... fields) {
+        dirtyFields.track(fields);
+    }
+
+    /**
+     * Gets the tracker of the fields changed since the last successful save, to be used by the save path of the
+     * Interactor, which resets it once the write succeeded. It tracks no field unless
+     * {@link #trackDirtyFields(Property[])} was called.
+     * @return the DirtyFields of this Model
+     */
+    public DirtyFields getDirtyFields() {
+        return dirtyFields;
+    }
 }
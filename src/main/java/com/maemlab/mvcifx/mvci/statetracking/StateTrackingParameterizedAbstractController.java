@@ -2,7 +2,6 @@ package com.maemlab.mvcifx.mvci.statetracking;
 
 import com.maemlab.mvcifx.mvci.Interactor;
 import com.maemlab.mvcifx.mvci.base.ParameterizedController;
-import javafx.scene.layout.Region;
 
 /**
  * An abstract implementation of the {@link ParameterizedController} interface that provides state tracking capabilities.
@@ -20,16 +19,13 @@ import javafx.scene.layout.Region;
  * @param <B> The type of StateTrackingAbstractViewBuilder this controller uses
  *
  * @see ParameterizedController
+ * @see StateTrackingAbstractController
  * @see StateTrackingModel
  * @see StateTrackingAbstractViewBuilder
  * @see Interactor
  */
 public abstract class StateTrackingParameterizedAbstractController<M extends StateTrackingModel, I extends Interactor, B extends StateTrackingAbstractViewBuilder<M>>
-        implements ParameterizedController {
-    protected final M model;
-    protected final I interactor;
-    protected final B viewBuilder;
-    protected Region region;
+        extends StateTrackingAbstractController<M, I, B> implements ParameterizedController {
 
     /**
      * Creates a new controller instance with the specified components.
@@ -40,23 +36,21 @@ public abstract class StateTrackingParameterizedAbstractController<M extends Sta
      * @throws IllegalArgumentException if any parameter is null
      */
     public StateTrackingParameterizedAbstractController(M model, I interactor, B viewBuilder) {
-        if (model == null || interactor == null || viewBuilder == null) {
-            throw new IllegalArgumentException("Model, Interactor and ViewBuilder must not be null");
-        }
-
-        this.model = model;
-        this.interactor = interactor;
-        this.viewBuilder = viewBuilder;
+        super(model, interactor, viewBuilder);
     }
 
     @Override
-    public Region getView() {
-        if (region == null) {
-            region = viewBuilder.build();
-        }
-        return region;
-    }
+    public abstract void load();
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The view is only pre-built if the ViewBuilder supports building it in the background.
+     */
     @Override
-    public abstract void load();
+    public void prefetch(boolean prebuildView) {
+        if (prebuildView) {
+            prebuildView();
+        }
+    }
 }
@@ -0,0 +1,318 @@
+package com.maemlab.mvcifx.mvci.statetracking;
+
+import com.maemlab.mvcifx.exception.BatchWriteException;
+import javafx.application.Platform;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An Interactor-side queue that writes confirmed saves and deletes behind the user's back, in batches, instead of
+ * one round trip per click.
+ *
+ * <p>It fits the state-tracking flow as follows:
+ * <ol>
+ *   <li>Once a save is complete ({@code saveComplete} turned true) or a delete confirmed ({@code deleteConfirmed}
+ *       turned true), the Controller enqueues the entity through {@link #save(Object, Object)} or {@link #delete(Object)}</li>
+ *   <li>Operations on the same key are coalesced while they wait: the last save wins, and a delete replaces any
+ *       pending save</li>
+ *   <li>The queue is flushed on a background thread when it holds {@code maxBatchSize} keys, or {@code maxDelay} after
+ *       its first pending operation, whichever comes first. Batches of a queue are written one at a time, in order</li>
+ *   <li>If some items fail, a {@link BatchWriteException} mapping each failed key to its cause is set through
+ *       {@code model.setError(...)}, and {@code saveComplete} or {@code deleteConfirmed} is reset to false,
+ *       on the JavaFX Application Thread</li>
+ * </ol>
+ *
+ * <p>Example:
+ * <pre>{@code
+ * private final WriteBehindQueue<Integer, Nirvana> writes =
+ *         new WriteBehindQueue<>(model, (saves, deletes) -> dao.writeAll(saves, deletes));
+ *
+ * model.saveCompleteProperty().addListener((obs, old, complete) -> {
+ *     if (complete) {
+ *         writes.save(model.getSelectedItem().getId(), model.getSelectedItem().toNirvana());
+ *     }
+ * });
+ * }</pre>
+ *
+ * @param <K> The type of the keys identifying the entities
+ * @param <V> The type of the entities
+ *
+ * @see StateTrackingModel
+ * @see BatchWriteException
+ */
+public class WriteBehindQueue<K, V> {
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+    private static final ScheduledExecutorService WRITERS = createWriters();
+
+    private final StateTrackingModel model;
+    private final BatchWriter<K, V> writer;
+    private final int maxBatchSize;
+    private final Duration maxDelay;
+    private final Object lock = new Object();
+    private Map<K, Operation<V>> pending = new LinkedHashMap<>();
+    private ScheduledFuture<?> scheduledFlush;
+    private boolean writing;
+    private boolean flushDue;
+    private CompletableFuture<Void> nextFlush = new CompletableFuture<>();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+
+    /**
+     * Writes a batch of coalesced operations to the data source. It is called on a background thread.
+     *
+     * @param <K> The type of the keys identifying the entities
+     * @param <V> The type of the entities
+     */
+    @FunctionalInterface
+    public interface BatchWriter<K, V> {
+        /**
+         * Writes a batch.
+         *
+         * @param saves The entities to save, by key
+         * @param deletes The keys of the entities to delete
+         * @return the causes of the items that failed, by key; an empty map if all items were written
+         * @throws Exception if the whole batch failed
+         */
+        Map<K, Throwable> write(Map<K, V> saves, Set<K> deletes) throws Exception;
+    }
+
+    /**
+     * Creates a new queue flushing batches of at most 100 keys, at most 500 milliseconds after the first pending operation.
+     *
+     * @param model The Model whose state is updated when writes fail
+     * @param writer The writer of the batches
+     * @throws IllegalArgumentException if a parameter is null
+     */
+    public WriteBehindQueue(StateTrackingModel model, BatchWriter<K, V> writer) {
+        this(model, writer, 100, Duration.ofMillis(500));
+    }
+
+    /**
+     * Creates a new queue.
+     *
+     * @param model The Model whose state is updated when writes fail
+     * @param writer The writer of the batches
+     * @param maxBatchSize The number of pending keys that triggers a flush
+     * @param maxDelay The maximum time an operation waits before being flushed
+     * @throws IllegalArgumentException if a parameter is null, or if maxBatchSize is not positive
+     */
+    public WriteBehindQueue(StateTrackingModel model, BatchWriter<K, V> writer, int maxBatchSize, Duration maxDelay) {
+        if (model == null || writer == null || maxDelay == null) {
+            throw new IllegalArgumentException("Model, writer and max delay must not be null");
+        }
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Max batch size must be positive");
+        }
+
+        this.model = model;
+        this.writer = writer;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelay = maxDelay;
+    }
+
+    private static ScheduledExecutorService createWriters() {
+        var executor = new ScheduledThreadPoolExecutor(2, runnable -> {
+            var thread = new Thread(runnable, "mvcifx-write-behind-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    /**
+     * Enqueues the save of an entity, replacing any pending operation on the same key.
+     *
+     * @param key The key of the entity
+     * @param value The entity to save
+     * @return a future completed once the batch holding the operation is written, whether the item failed or not
+     * @throws IllegalArgumentException if a parameter is null
+     */
+    public CompletableFuture<Void> save(K key, V value) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("Key and value must not be null");
+        }
+        return enqueue(key, new Operation<>(value));
+    }
+
+    /**
+     * Enqueues the delete of an entity, replacing any pending operation on the same key.
+     *
+     * @param key The key of the entity
+     * @return a future completed once the batch holding the operation is written, whether the item failed or not
+     * @throws IllegalArgumentException if the key is null
+     */
+    public CompletableFuture<Void> delete(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key must not be null");
+        }
+        return enqueue(key, new Operation<>(null));
+    }
+
+    private CompletableFuture<Void> enqueue(K key, Operation<V> operation) {
+        synchronized (lock) {
+            if (pending.put(key, operation) != null) {
+                coalesced.incrementAndGet();
+            }
+
+            var flush = nextFlush;
+            if (pending.size() >= maxBatchSize) {
+                scheduleFlush(0);
+            } else if (scheduledFlush == null) {
+                scheduleFlush(maxDelay.toNanos());
+            }
+            return flush;
+        }
+    }
+
+    private void scheduleFlush(long delayNanos) {
+        if (writing) {
+            // the batch being written schedules the next flush when it completes, rather than blocking a writer thread
+            flushDue |= delayNanos == 0;
+            return;
+        }
+        if (scheduledFlush != null) {
+            if (delayNanos > 0) {
+                return;
+            }
+            scheduledFlush.cancel(false);
+        }
+        scheduledFlush = WRITERS.schedule(this::writePending, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Writes the pending operations now, without waiting for the batch to fill up.
+     * @return a future completed once they are written, whether items failed or not
+     */
+    public CompletableFuture<Void> flush() {
+        synchronized (lock) {
+            var flush = nextFlush;
+            if (!pending.isEmpty()) {
+                scheduleFlush(0);
+            } else if (scheduledFlush == null) {
+                return CompletableFuture.completedFuture(null);
+            }
+            return flush;
+        }
+    }
+
+    private void writePending() {
+        // batches are written one at a time, so that operations on the same key reach the data source in order
+        Map<K, Operation<V>> batch;
+        CompletableFuture<Void> flush;
+        synchronized (lock) {
+            scheduledFlush = null;
+            if (writing) {
+                flushDue = true; // a flush whose cancellation came too late
+                return;
+            }
+            batch = pending;
+            flush = nextFlush;
+            pending = new LinkedHashMap<>();
+            nextFlush = new CompletableFuture<>();
+            writing = !batch.isEmpty();
+            flushDue = false;
+        }
+        if (batch.isEmpty()) {
+            flush.complete(null);
+            return;
+        }
+
+        try {
+            writeBatch(batch);
+        } finally {
+            synchronized (lock) {
+                writing = false;
+                if (flushDue || pending.size() >= maxBatchSize) {
+                    flushDue = false;
+                    scheduleFlush(0);
+                } else if (!pending.isEmpty() && scheduledFlush == null) {
+                    scheduleFlush(maxDelay.toNanos());
+                }
+            }
+            flush.complete(null);
+        }
+    }
+
+    private void writeBatch(Map<K, Operation<V>> batch) {
+        var saves = new LinkedHashMap<K, V>();
+        var deletes = new LinkedHashSet<K>();
+        batch.forEach((key, operation) -> {
+            if (operation.isDelete()) {
+                deletes.add(key);
+            } else {
+                saves.put(key, operation.value());
+            }
+        });
+
+        Map<K, Throwable> failures;
+        try {
+            failures = writer.write(saves, deletes);
+        } catch (Exception e) {
+            failures = new HashMap<>();
+            for (K key : batch.keySet()) {
+                failures.put(key, e);
+            }
+        }
+        batches.incrementAndGet();
+
+        if (failures != null && !failures.isEmpty()) {
+            var failed = new LinkedHashMap<>(failures);
+            var saveFailed = failed.keySet().stream().anyMatch(saves::containsKey);
+            var deleteFailed = failed.keySet().stream().anyMatch(deletes::contains);
+            Platform.runLater(() -> {
+                if (saveFailed) {
+                    model.setSaveComplete(false);
+                }
+                if (deleteFailed) {
+                    model.setDeleteConfirmed(false);
+                }
+                model.setError(new BatchWriteException(failed));
+            });
+        }
+    }
+
+    /**
+     * Gets the number of keys waiting to be written.
+     * @return the number of pending operations
+     */
+    public int getPending() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * Gets the number of operations replaced by a later operation on the same key before being written.
+     * @return the number of coalesced operations
+     */
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    /**
+     * Gets the number of batches written.
+     * @return the number of batches
+     */
+    public long getBatches() {
+        return batches.get();
+    }
+
+    private record Operation<V>(V value) {
+        boolean isDelete() {
+            return value == null;
+        }
+    }
+}
@@ -7,10 +7,20 @@
  *   that automatically reflect application state changes
  *   <li>{@link com.maemlab.mvcifx.mvci.statetracking.StateTrackingAbstractViewBuilder}: Provides view building functionality
  *       with automated model state observation and UI updates
+ *   <li>{@link com.maemlab.mvcifx.mvci.statetracking.StateTrackingAbstractController}: The base class of the state-tracking
+ *   controllers, building the view either on the JavaFX Application Thread or on a background thread
  *   <li>{@link com.maemlab.mvcifx.mvci.statetracking.StateTrackingDataSourceAbstractController}: Provides state tracking capabilities,
  *   combining asynchronous data retrieval through background task for data source interactions
  *   <li>{@link com.maemlab.mvcifx.mvci.statetracking.StateTrackingParameterizedAbstractController}: Provides state tracking capabilities,
  *   enabling controller initialization using constructor parameters
+ *   <li>{@link com.maemlab.mvcifx.mvci.statetracking.WriteBehindQueue}: Coalesces confirmed saves and deletes per entity
+ *   and writes them in batches on a background thread, reporting failures through the Model's state
+ *   <li>{@link com.maemlab.mvcifx.mvci.statetracking.OptimisticUpdater}: Applies Model changes immediately and rolls them
+ *   back if the backend call persisting them fails
+ *   <li>{@link com.maemlab.mvcifx.mvci.statetracking.ErrorChannel}: Deduplicates and rate-limits the errors of a Model
+ *   before they reach the view builder, keeping them while the view is not in a window
+ *   <li>{@link com.maemlab.mvcifx.mvci.statetracking.CancellationScope}: Tracks the background work of a controller,
+ *   cancelled when the user confirms quitting the screen or when the controller is disposed
  * </ul>
  *
  * <p>These implementations work together to provide a cohesive state management solution for MVCI applications.
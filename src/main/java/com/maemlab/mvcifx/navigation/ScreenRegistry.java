@@ -0,0 +1,397 @@
+package com.maemlab.mvcifx.navigation;
+
+import com.maemlab.mvcifx.mvci.Controller;
+import com.maemlab.mvcifx.mvci.base.DataSourceController;
+import com.maemlab.mvcifx.mvci.base.ParameterizedController;
+import javafx.application.Platform;
+import javafx.scene.layout.Region;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A registry of the screens of an application shell, that creates each Controller and builds its view on first show,
+ * instead of creating every screen at startup.
+ *
+ * <p>Screens are registered with a factory, which is not called until the screen is needed:
+ * <ul>
+ *   <li>{@link #show(String)} creates the Controller on the JavaFX Application Thread if it does not exist yet,
+ *       then returns its view, built on first show</li>
+ *   <li>{@link #warmUp(String...)} creates the Controllers of likely-next screens on background threads, in the order
+ *       of the list, so that the most likely screen is ready first. The Model, the Interactor and the Controller are
+ *       created in the background; the view is still built on first show</li>
+ *   <li>{@link #prefetch(String, boolean)} prepares the screen whose menu entry the user hovers: its data is fetched
+ *       at low priority, and its view optionally built in the background, until the user goes elsewhere</li>
+ * </ul>
+ * The optional initializer of a screen is called once on the JavaFX Application Thread right after its Controller is
+ * created, wherever it was created: it is the place to start the initial fetch, e.g. {@code c -> c.lookup(() -> {})},
+ * so that warmed-up screens already hold their data when first shown.
+ *
+ * <p>Factories used for warm-up must not touch the scene graph: they run off the JavaFX Application Thread. This is
+ * the case of the usual MVCI factories, since ViewBuilders only create nodes in {@code build()}.
+ *
+ * <p>Example:
+ * <pre>{@code
+ * var screens = new ScreenRegistry();
+ * screens.register("simple", SimpleController::new);
+ * screens.register("state-tracking", STController::create, c -> c.lookup(() -> {}));
+ * center.getChildren().setAll(screens.show("simple"));
+ * screens.warmUp("state-tracking");
+ * }</pre>
+ *
+ * @see Controller
+ */
+public class ScreenRegistry {
+    private static final int DEFAULT_WARM_UP_THREADS = 2;
+
+    private final Map<String, Screen<?>> screens = new ConcurrentHashMap<>();
+    private final ExecutorService warmUpExecutor;
+    private String prefetching;
+
+    /**
+     * Creates a new registry that warms screens up on two background threads.
+     */
+    public ScreenRegistry() {
+        this(DEFAULT_WARM_UP_THREADS);
+    }
+
+    /**
+     * Creates a new registry.
+     *
+     * @param warmUpThreads The number of background threads used to warm screens up
+     * @throws IllegalArgumentException if warmUpThreads is not positive
+     */
+    public ScreenRegistry(int warmUpThreads) {
+        if (warmUpThreads <= 0) {
+            throw new IllegalArgumentException("Warm-up threads must be positive");
+        }
+
+        var counter = new AtomicInteger();
+        this.warmUpExecutor = Executors.newFixedThreadPool(warmUpThreads, runnable -> {
+            var thread = new Thread(runnable, "mvcifx-warm-up-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Registers a screen. The factory is not called until the screen is shown or warmed up.
+     *
+     * @param id The identifier of the screen
+     * @param factory The factory creating the Controller of the screen
+     * @param <C> The type of the Controller
+     * @throws IllegalArgumentException if a parameter is null, or if a screen is already registered with this id
+     */
+    public <C extends Controller> void register(String id, Supplier<C> factory) {
+        register(id, factory, null);
+    }
+
+    /**
+     * Registers a screen. The factory is not called until the screen is shown or warmed up.
+     *
+     * @param id The identifier of the screen
+     * @param factory The factory creating the Controller of the screen
+     * @param initializer A callback executed once on the JavaFX Application Thread right after the Controller is
+     *                    created (e.g.: to start the initial lookup). May be null.
+     * @param <C> The type of the Controller
+     * @throws IllegalArgumentException if the id or the factory is null, or if a screen is already registered with this id
+     */
+    public <C extends Controller> void register(String id, Supplier<C> factory, Consumer<? super C> initializer) {
+        if (id == null || factory == null) {
+            throw new IllegalArgumentException("Id and factory must not be null");
+        }
+        if (screens.putIfAbsent(id, new Screen<>(factory, initializer)) != null) {
+            throw new IllegalArgumentException("Screen already registered: " + id);
+        }
+    }
+
+    /**
+     * Gets the view of a screen, creating its Controller and building its view if needed.
+     * If the Controller is being created by a warm-up thread, this method blocks until it is created:
+     * prefer {@link #showAsync(String)} for screens that may be warming up.
+     * This method must be called on the JavaFX Application Thread.
+     *
+     * @param id The identifier of the screen
+     * @return the view of the screen
+     * @throws IllegalArgumentException if no screen is registered with this id
+     */
+    public Region show(String id) {
+        return getController(id).getView();
+    }
+
+    /**
+     * Gets the view of a screen, creating its Controller if needed, and building its view through
+     * {@link Controller#getViewAsync()}: Controllers supporting it build their view on a background thread,
+     * so that large screens open without blocking the JavaFX Application Thread. If the Controller is being created
+     * by a warm-up thread, the view is built once it is created, without waiting for it.
+     * This method must be called on the JavaFX Application Thread.
+     *
+     * @param id The identifier of the screen
+     * @return a future completed on the JavaFX Application Thread with the view of the screen
+     * @throws IllegalArgumentException if no screen is registered with this id
+     */
+    public CompletableFuture<Region> showAsync(String id) {
+        return getControllerAsync(id).thenCompose(Controller::getViewAsync);
+    }
+
+    /**
+     * Gets the Controller of a screen, creating it if needed, without building its view.
+     * If the Controller is being created by a warm-up thread, this method blocks until it is created:
+     * prefer {@link #getControllerAsync(String)} for screens that may be warming up.
+     * This method must be called on the JavaFX Application Thread.
+     *
+     * @param id The identifier of the screen
+     * @return the Controller of the screen
+     * @throws IllegalArgumentException if no screen is registered with this id
+     */
+    public Controller<?> getController(String id) {
+        var screen = screenOf(id);
+        var future = claim(id, screen);
+
+        Controller<?> controller;
+        try {
+            controller = future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+        screen.initialize();
+        return controller;
+    }
+
+    /**
+     * Gets the Controller of a screen, creating it if needed, without building its view and without blocking:
+     * if the Controller is being created by a warm-up thread, the returned future completes once it is created.
+     * This method must be called on the JavaFX Application Thread.
+     *
+     * @param id The identifier of the screen
+     * @return a future completed on the JavaFX Application Thread with the Controller of the screen, or with the
+     *         failure of its factory
+     * @throws IllegalArgumentException if no screen is registered with this id
+     */
+    public CompletableFuture<Controller<?>> getControllerAsync(String id) {
+        var screen = screenOf(id);
+        var future = claim(id, screen);
+
+        var result = new CompletableFuture<Controller<?>>();
+        if (future.isDone()) {
+            complete(result, screen, future);
+        } else {
+            future.whenComplete((controller, failure) -> Platform.runLater(() -> complete(result, screen, future)));
+        }
+        return result;
+    }
+
+    private CompletableFuture<? extends Controller> claim(String id, Screen<?> screen) {
+        if (id.equals(prefetching)) {
+            prefetching = null; // the prefetch is taken over by the lookups of the shown screen
+        }
+        return screen.claimOrGet(); // claims a queued warm-up that has not started yet
+    }
+
+    private static void complete(CompletableFuture<Controller<?>> result, Screen<?> screen,
+                                 CompletableFuture<? extends Controller> future) {
+        if (future.isCompletedExceptionally()) {
+            future.whenComplete((controller, failure) -> result.completeExceptionally(
+                    failure instanceof CompletionException ? failure.getCause() : failure));
+            return;
+        }
+        screen.initialize();
+        result.complete(future.join());
+    }
+
+    /**
+     * Tells whether the Controller of a screen has been created, either by a show or by a warm-up.
+     *
+     * @param id The identifier of the screen
+     * @return true if the Controller is created
+     * @throws IllegalArgumentException if no screen is registered with this id
+     */
+    public boolean isCreated(String id) {
+        var controller = screenOf(id).controller;
+        return controller.isDone() && !controller.isCompletedExceptionally();
+    }
+
+    /**
+     * Creates the Controllers of the specified screens in the background, most likely screen first.
+     * Screens already created or being created are skipped. Warm-up failures are not reported: the factory is
+     * called again when the screen is shown.
+     *
+     * @param ids The identifiers of the screens, ordered by decreasing likelihood of being shown next
+     * @throws IllegalArgumentException if no screen is registered with one of the ids
+     */
+    public void warmUp(String... ids) {
+        for (String id : ids) {
+            var screen = screenOf(id);
+            if (!screen.isClaimed() && screen.queued.compareAndSet(false, true)) {
+                warmUpExecutor.execute(() -> {
+                    // a show may have created the Controller on the JavaFX Application Thread meanwhile
+                    var future = screen.tryClaim();
+                    if (future != null && !future.isCompletedExceptionally()) {
+                        Platform.runLater(screen::initialize);
+                    }
+                    screen.queued.set(false);
+                });
+            }
+        }
+    }
+
+    /**
+     * Prefetches a screen the user is likely to show next, e.g. when its menu entry is hovered or focused: the screen
+     * is warmed up if needed, then its Controller prefetches its data and optionally builds its view in the background
+     * (see {@link DataSourceController#prefetch(boolean)}). Nothing visible is changed.
+     * Prefetching a screen cancels the prefetch of the previous one, since the user went elsewhere.
+     * This method must be called on the JavaFX Application Thread.
+     *
+     * @param id The identifier of the screen
+     * @param prebuildView true to also build the view in the background
+     * @throws IllegalArgumentException if no screen is registered with this id
+     */
+    public void prefetch(String id, boolean prebuildView) {
+        var screen = screenOf(id);
+        if (id.equals(prefetching)) {
+            return;
+        }
+
+        cancelPrefetch();
+        prefetching = id;
+        warmUp(id);
+        screen.controller.thenAccept(controller -> Platform.runLater(() -> {
+            if (id.equals(prefetching)) {
+                prefetch(controller, prebuildView);
+            }
+        }));
+    }
+
+    /**
+     * Cancels the prefetch started by {@link #prefetch(String, boolean)}, e.g. when the pointer leaves the menu entry.
+     * This method must be called on the JavaFX Application Thread.
+     */
+    public void cancelPrefetch() {
+        if (prefetching == null) {
+            return;
+        }
+
+        var controller = screens.get(prefetching).controller;
+        prefetching = null;
+        if (controller.isDone() && !controller.isCompletedExceptionally()) {
+            Controller<?> prefetched = controller.join();
+            if (prefetched instanceof DataSourceController dataSource) {
+                dataSource.cancelPrefetch();
+            } else if (prefetched instanceof ParameterizedController parameterized) {
+                parameterized.cancelPrefetch();
+            }
+        }
+    }
+
+    private static void prefetch(Controller<?> controller, boolean prebuildView) {
+        if (controller instanceof DataSourceController dataSource) {
+            dataSource.prefetch(prebuildView);
+        } else if (controller instanceof ParameterizedController parameterized) {
+            parameterized.prefetch(prebuildView);
+        } else if (prebuildView) {
+            controller.getViewAsync();
+        }
+    }
+
+    /**
+     * Stops the warm-up threads, and disposes the controllers created so far (see {@link Controller#dispose()}).
+     * This method must be called on the JavaFX Application Thread, once the screens are no longer shown.
+     */
+    public void dispose() {
+        warmUpExecutor.shutdownNow();
+        screens.values().forEach(screen -> {
+            var controller = screen.controller.getNow(null);
+            if (controller != null) {
+                controller.dispose();
+            }
+        });
+    }
+
+    private Screen<?> screenOf(String id) {
+        var screen = screens.get(id);
+        if (screen == null) {
+            throw new IllegalArgumentException("Unknown screen: " + id);
+        }
+        return screen;
+    }
+
+    private static final class Screen<C extends Controller> {
+        private final Supplier<C> factory;
+        private final Consumer<? super C> initializer;
+        private final AtomicBoolean queued = new AtomicBoolean();
+        // a failed creation resets both at once, so that a claim never gets a future nobody completes
+        private boolean claimed; // guarded by this
+        private volatile CompletableFuture<C> controller = new CompletableFuture<>(); // replaced under this
+        private boolean initialized;
+
+        private Screen(Supplier<C> factory, Consumer<? super C> initializer) {
+            this.factory = factory;
+            this.initializer = initializer;
+        }
+
+        private synchronized boolean isClaimed() {
+            return claimed;
+        }
+
+        // creates the Controller, or returns the future of the creation claimed by another thread
+        private CompletableFuture<C> claimOrGet() {
+            CompletableFuture<C> future;
+            synchronized (this) {
+                future = controller;
+                if (claimed) {
+                    return future;
+                }
+                claimed = true;
+            }
+            return create(future);
+        }
+
+        // creates the Controller, or returns null if its creation is already claimed
+        private CompletableFuture<C> tryClaim() {
+            CompletableFuture<C> future;
+            synchronized (this) {
+                if (claimed) {
+                    return null;
+                }
+                claimed = true;
+                future = controller;
+            }
+            return create(future);
+        }
+
+        private CompletableFuture<C> create(CompletableFuture<C> future) {
+            try {
+                future.complete(factory.get());
+            } catch (RuntimeException | Error e) {
+                // allow the next show or warm-up to call the factory again
+                synchronized (this) {
+                    controller = new CompletableFuture<>();
+                    claimed = false;
+                }
+                future.completeExceptionally(e);
+            }
+            return future;
+        }
+
+        private void initialize() {
+            if (initialized || !controller.isDone() || controller.isCompletedExceptionally()) {
+                return;
+            }
+            initialized = true;
+            if (initializer != null) {
+                initializer.accept(controller.join());
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.maemlab.mvcifx.navigation;
+
+import com.maemlab.mvcifx.mvci.Controller;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.Region;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Hosts the views of the screens of an application shell in a {@link Pane}, showing one screen at a time, and keeps
+ * the views of a bounded number of recently shown screens.
+ *
+ * <p>Only the shown view is a child of the host: the other views are removed from the scene graph instead of being
+ * made invisible, so that they take no part in the CSS and layout passes. Hidden views are kept for a quick return,
+ * up to the capacity of the cache: beyond it, the view of the least recently shown screen is released through
+ * {@link Controller#releaseView()}. Its Controller and Model are kept, so the state of the screen survives the eviction,
+ * and the view is built again the next time the screen is shown.
+ *
+ * <p>Example:
+ * <pre>{@code
+ * var views = new ViewCache(center, 5);
+ * toggle.setOnAction(evt -> views.show(screens.getController("state-tracking")));
+ * }</pre>
+ * This class must be used on the JavaFX Application Thread.
+ *
+ * @see ScreenRegistry
+ * @see Controller#releaseView()
+ */
+public class ViewCache {
+    private final Pane host;
+    private final int capacity;
+    private final Map<Controller<?>, Region> views = new LinkedHashMap<>(16, 0.75f, true);
+    private Controller<?> shown;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param host The pane hosting the shown view. Its children are managed by this cache.
+     * @param capacity The maximum number of views kept, including the shown one
+     * @throws IllegalArgumentException if the host is null, or if the capacity is not positive
+     */
+    public ViewCache(Pane host, int capacity) {
+        if (host == null) {
+            throw new IllegalArgumentException("Host must not be null");
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+
+        this.host = host;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Shows the view of a Controller in the host, building it if needed, and evicts the views beyond the capacity.
+     *
+     * @param controller The Controller of the screen to show
+     * @return the shown view
+     * @throws IllegalArgumentException if the controller is null
+     */
+    public Region show(Controller<?> controller) {
+        if (controller == null) {
+            throw new IllegalArgumentException("Controller must not be null");
+        }
+
+        return attach(controller, controller.getView());
+    }
+
+    /**
+     * Shows the view of a Controller in the host, building it through {@link Controller#getViewAsync()} if needed,
+     * and evicts the views beyond the capacity. The current view stays in the host until the new one is built.
+     * If another screen is shown in the meantime, the view is cached but not attached.
+     *
+     * @param controller The Controller of the screen to show
+     * @return a future completed on the JavaFX Application Thread with the shown view
+     * @throws IllegalArgumentException if the controller is null
+     */
+    public CompletableFuture<Region> showAsync(Controller<?> controller) {
+        if (controller == null) {
+            throw new IllegalArgumentException("Controller must not be null");
+        }
+
+        shown = controller;
+        return controller.getViewAsync().thenApply(view -> shown == controller ? attach(controller, view) : view);
+    }
+
+    private Region attach(Controller<?> controller, Region view) {
+        shown = controller;
+        views.put(controller, view);
+        if (host.getChildren().size() != 1 || host.getChildren().get(0) != view) {
+            host.getChildren().setAll(view);
+        }
+        evict();
+        return view;
+    }
+
+    private void evict() {
+        var iterator = views.entrySet().iterator();
+        while (views.size() > capacity && iterator.hasNext()) {
+            var entry = iterator.next();
+            if (entry.getKey() != shown) {
+                iterator.remove();
+                entry.getKey().releaseView();
+            }
+        }
+    }
+
+    /**
+     * Releases the view of a Controller, removing it from the host if it is shown.
+     *
+     * @param controller The Controller whose view is released
+     */
+    public void evict(Controller<?> controller) {
+        var view = views.remove(controller);
+        if (view != null) {
+            host.getChildren().remove(view);
+            controller.releaseView();
+        }
+        if (shown == controller) {
+            shown = null;
+        }
+    }
+
+    /**
+     * Gets the number of views kept by this cache, including the shown one.
+     * @return the number of cached views
+     */
+    public int size() {
+        return views.size();
+    }
+}
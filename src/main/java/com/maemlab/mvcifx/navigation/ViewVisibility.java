@@ -0,0 +1,124 @@
+package com.maemlab.mvcifx.navigation;
+
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.scene.Node;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tracks whether a view is actually seen by the user: the view and all its ancestors are visible, and it is in a scene
+ * whose window is showing.
+ *
+ * <p>Unlike {@code Node.visibleProperty()}, which only describes the node itself, the {@code showing} property of this
+ * class turns false when the view is hidden through an ancestor, removed from the scene graph, or when its window is
+ * hidden. Its {@code focused} property additionally requires the focus to be within the view. Controllers use them to
+ * suspend the updates of hidden screens (see
+ * {@link com.maemlab.mvcifx.lookup.LookupRunner#setActive(javafx.beans.value.ObservableBooleanValue)}), and to
+ * prioritize their lookups.
+ *
+ * <p>The node can be replaced through {@link #setNode(Node)}, e.g. when a released view is built again.
+ * This class must be used on the JavaFX Application Thread.
+ */
+public class ViewVisibility {
+    private final ReadOnlyBooleanWrapper showing = new ReadOnlyBooleanWrapper(this, "showing", false);
+    private final ReadOnlyBooleanWrapper focused = new ReadOnlyBooleanWrapper(this, "focused", false);
+    private final InvalidationListener listener = obs -> update();
+    private final List<Observable> observed = new ArrayList<>();
+    private Node node;
+
+    /**
+     * Creates a new instance tracking no node: it is not showing until a node is set.
+     */
+    public ViewVisibility() {
+    }
+
+    /**
+     * Creates a new instance tracking the specified node.
+     *
+     * @param node The root node of the view. May be null.
+     */
+    public ViewVisibility(Node node) {
+        setNode(node);
+    }
+
+    /**
+     * Sets the tracked node.
+     *
+     * @param node The root node of the view. May be null, in which case the view is not showing.
+     */
+    public void setNode(Node node) {
+        this.node = node;
+        update();
+    }
+
+    /**
+     * Gets the tracked node.
+     * @return the root node of the view, or null
+     */
+    public Node getNode() {
+        return node;
+    }
+
+    private void update() {
+        observed.forEach(observable -> observable.removeListener(listener));
+        observed.clear();
+
+        var visible = node != null;
+        for (Node current = node; current != null; current = current.getParent()) {
+            observe(current.visibleProperty());
+            observe(current.parentProperty());
+            visible &= current.isVisible();
+        }
+
+        var windowShowing = false;
+        if (node != null) {
+            observe(node.focusWithinProperty());
+            observe(node.sceneProperty());
+            var scene = node.getScene();
+            if (scene != null) {
+                observe(scene.windowProperty());
+                var window = scene.getWindow();
+                if (window != null) {
+                    observe(window.showingProperty());
+                    windowShowing = window.isShowing();
+                }
+            }
+        }
+
+        showing.set(visible && windowShowing);
+        focused.set(showing.get() && node.isFocusWithin());
+    }
+
+    private void observe(Observable observable) {
+        observable.addListener(listener);
+        observed.add(observable);
+    }
+
+    /**
+     * Tells whether the view is showing: visible with all its ancestors, in the scene of a showing window.
+     * @return the read-only showing property
+     */
+    public ReadOnlyBooleanProperty showingProperty() {
+        return showing.getReadOnlyProperty();
+    }
+
+    public boolean isShowing() {
+        return showing.get();
+    }
+
+    /**
+     * Tells whether the view is showing and holds the focus, i.e. the focus owner is the view or one of its descendants.
+     * @return the read-only focused property
+     */
+    public ReadOnlyBooleanProperty focusedProperty() {
+        return focused.getReadOnlyProperty();
+    }
+
+    public boolean isFocused() {
+        return focused.get();
+    }
+}
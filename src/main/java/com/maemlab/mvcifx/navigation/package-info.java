@@ -0,0 +1,16 @@
+/**
+ * Provides the navigation support of application shells hosting several MVCI screens.
+ *
+ * <p>This package contains the components that decide when the screens of a shell are created and built:
+ * <ul>
+ *   <li>{@link com.maemlab.mvcifx.navigation.ScreenRegistry}: Creates each Controller and builds its view on first show,
+ *   and warms likely-next screens up on background threads
+ *   <li>{@link com.maemlab.mvcifx.navigation.ViewCache}: Keeps only the shown view in the scene graph, and releases
+ *   the views of the least recently shown screens beyond a budget
+ *   <li>{@link com.maemlab.mvcifx.navigation.ViewVisibility}: Tells whether a view is actually showing: visible with all
+ *   its ancestors, in a showing window
+ * </ul>
+ *
+ * @see com.maemlab.mvcifx.mvci
+ */
+package com.maemlab.mvcifx.navigation;
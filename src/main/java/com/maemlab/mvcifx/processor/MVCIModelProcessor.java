@@ -0,0 +1,283 @@
+package com.maemlab.mvcifx.processor;
+
+import com.maemlab.mvcifx.annotation.MVCIModel;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Generates the observable model class and the {@code TableColumn} cell value factories of the types
+ * annotated with {@link MVCIModel}.
+ *
+ * @see MVCIModel
+ */
+@SupportedAnnotationTypes("com.maemlab.mvcifx.annotation.MVCIModel")
+public class MVCIModelProcessor extends AbstractProcessor {
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(MVCIModel.class)) {
+            if (!(element instanceof TypeElement type) || (type.getKind() != ElementKind.CLASS && type.getKind() != ElementKind.RECORD)) {
+                error(element, "@MVCIModel can only be applied to a record or a class");
+                continue;
+            }
+            if (!type.getTypeParameters().isEmpty()) {
+                error(type, "@MVCIModel cannot be applied to a generic type");
+                continue;
+            }
+
+            try {
+                generate(type, type.getAnnotation(MVCIModel.class));
+            } catch (IOException e) {
+                error(type, "Cannot generate the model of " + type.getSimpleName() + ": " + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    private void generate(TypeElement type, MVCIModel annotation) throws IOException {
+        var properties = collectProperties(type);
+        if (properties == null) {
+            return;
+        }
+
+        var packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        var sourceName = type.getQualifiedName().toString();
+        var baseName = type.getSimpleName().toString();
+        var modelName = annotation.modelName().isEmpty() ? baseName + "Model" : annotation.modelName();
+        var columnsName = annotation.columnsName().isEmpty() ? baseName + "Columns" : annotation.columnsName();
+
+        write(type, packageName, modelName, modelSource(packageName, sourceName, modelName, properties));
+        write(type, packageName, columnsName, columnsSource(packageName, modelName, columnsName, properties));
+    }
+
+    private List<PropertyDescriptor> collectProperties(TypeElement type) {
+        var properties = new ArrayList<PropertyDescriptor>();
+        if (type.getKind() == ElementKind.RECORD) {
+            for (RecordComponentElement component : type.getRecordComponents()) {
+                var name = component.getSimpleName().toString();
+                properties.add(PropertyDescriptor.of(name, component.asType(), name + "()"));
+            }
+            return properties;
+        }
+
+        var methods = ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type));
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            if (field.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+            var name = field.getSimpleName().toString();
+            var accessor = findAccessor(methods, name, field.asType());
+            if (accessor == null) {
+                if (field.getModifiers().contains(Modifier.PRIVATE)) {
+                    error(field, "Field " + name + " is private and has no accessor");
+                    return null;
+                }
+                accessor = name;
+            }
+            properties.add(PropertyDescriptor.of(name, field.asType(), accessor));
+        }
+        return properties;
+    }
+
+    private String findAccessor(List<ExecutableElement> methods, String name, TypeMirror fieldType) {
+        var capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        for (var prefix : List.of("get", "is")) {
+            for (var method : methods) {
+                if (method.getSimpleName().contentEquals(prefix + capitalized)
+                        && method.getParameters().isEmpty()
+                        && !method.getModifiers().contains(Modifier.PRIVATE)
+                        && !method.getModifiers().contains(Modifier.STATIC)
+                        && processingEnv.getTypeUtils().isSameType(method.getReturnType(), fieldType)) {
+                    return prefix + capitalized + "()";
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String modelSource(String packageName, String sourceName, String modelName, List<PropertyDescriptor> properties) {
+        var src = new StringBuilder();
+        header(src, packageName);
+        src.append("public class ").append(modelName).append(" {\n");
+        for (var p : properties) {
+            src.append("    private final ").append(p.propertyType()).append(' ').append(p.name())
+               .append(" = new ").append(p.simplePropertyType()).append("(this, \"").append(p.name()).append("\");\n");
+        }
+
+        src.append("\n    /**\n     * Creates a new model from the specified source.\n     *\n")
+           .append("     * @param $source The source to convert\n     * @return a new model holding the values of the source\n     */\n")
+           .append("    public static ").append(modelName).append(" toModel(").append(sourceName).append(" $source) {\n")
+           .append("        var $model = new ").append(modelName).append("();\n")
+           .append("        $model.updateFrom($source);\n")
+           .append("        return $model;\n")
+           .append("    }\n");
+
+        src.append("\n    /**\n     * Refreshes this model in place from the specified source. Only the properties whose value changed are set.\n     *\n")
+           .append("     * @param $source The source holding the new values\n     */\n")
+           .append("    public void updateFrom(").append(sourceName).append(" $source) {\n");
+        // generated names are prefixed with $ and fields qualified with this, so that no property can shadow them
+        for (var p : properties) {
+            var value = "$source." + p.accessor();
+            src.append("        if (").append(p.differs("this." + p.name() + ".get()", value)).append(") {\n")
+               .append("            this.").append(p.name()).append(".set(").append(value).append(");\n")
+               .append("        }\n");
+        }
+        src.append("    }\n");
+
+        for (var p : properties) {
+            var capitalized = p.capitalized();
+            src.append("\n    public ").append(p.valueType()).append(' ').append(p.getterPrefix()).append(capitalized).append("() {\n")
+               .append("        return this.").append(p.name()).append(".get();\n")
+               .append("    }\n");
+            src.append("\n    public void set").append(capitalized).append('(').append(p.valueType()).append(" $value) {\n")
+               .append("        this.").append(p.name()).append(".set($value);\n")
+               .append("    }\n");
+            src.append("\n    public ").append(p.propertyType()).append(' ').append(p.name()).append("Property() {\n")
+               .append("        return this.").append(p.name()).append(";\n")
+               .append("    }\n");
+        }
+        src.append("}\n");
+        return src.toString();
+    }
+
+    private static String columnsSource(String packageName, String modelName, String columnsName, List<PropertyDescriptor> properties) {
+        var src = new StringBuilder();
+        header(src, packageName);
+        src.append("public final class ").append(columnsName).append(" {\n");
+        for (var p : properties) {
+            src.append("    public static final javafx.util.Callback<javafx.scene.control.TableColumn.CellDataFeatures<")
+               .append(modelName).append(", ").append(p.boxedType()).append(">, javafx.beans.value.ObservableValue<")
+               .append(p.boxedType()).append(">> ").append(p.constantName())
+               .append(" = features -> features.getValue().").append(p.name()).append("Property()")
+               .append(p.asObject()).append(";\n");
+        }
+
+        src.append("\n    private ").append(columnsName).append("() {}\n");
+        for (var p : properties) {
+            src.append("\n    /**\n     * Creates a column bound to the {@code ").append(p.name()).append("} property.\n     *\n")
+               .append("     * @param label The text of the column header\n     * @return a new TableColumn\n     */\n")
+               .append("    public static javafx.scene.control.TableColumn<").append(modelName).append(", ").append(p.boxedType())
+               .append("> ").append(p.name()).append("(String label) {\n")
+               .append("        var column = new javafx.scene.control.TableColumn<").append(modelName).append(", ")
+               .append(p.boxedType()).append(">(label);\n")
+               .append("        column.setCellValueFactory(").append(p.constantName()).append(");\n")
+               .append("        return column;\n")
+               .append("    }\n");
+        }
+        src.append("}\n");
+        return src.toString();
+    }
+
+    private static void header(StringBuilder src, String packageName) {
+        if (!packageName.isEmpty()) {
+            src.append("package ").append(packageName).append(";\n\n");
+        }
+        src.append("// Generated by the mvciFX MVCIModelProcessor. Do not edit.\n");
+    }
+
+    private void write(TypeElement origin, String packageName, String simpleName, String source) throws IOException {
+        var qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        var file = processingEnv.getFiler().createSourceFile(qualifiedName, origin);
+        try (Writer writer = file.openWriter()) {
+            writer.write(source);
+        }
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private record PropertyDescriptor(String name, String accessor, TypeKind kind, String valueType, String boxedType,
+                                      String propertyType, String simplePropertyType) {
+
+        static PropertyDescriptor of(String name, TypeMirror type, String accessor) {
+            var kind = type.getKind();
+            return switch (kind) {
+                case BOOLEAN -> primitive(name, accessor, kind, "boolean", "Boolean");
+                case INT -> primitive(name, accessor, kind, "int", "Integer");
+                case LONG -> primitive(name, accessor, kind, "long", "Long");
+                case DOUBLE -> primitive(name, accessor, kind, "double", "Double");
+                case FLOAT -> primitive(name, accessor, kind, "float", "Float");
+                case BYTE, SHORT, CHAR -> {
+                    var boxed = switch (kind) {
+                        case BYTE -> "Byte";
+                        case SHORT -> "Short";
+                        default -> "Character";
+                    };
+                    yield new PropertyDescriptor(name, accessor, kind, boxed, boxed,
+                            "javafx.beans.property.ObjectProperty<" + boxed + ">",
+                            "javafx.beans.property.SimpleObjectProperty<>");
+                }
+                default -> {
+                    var typeName = type.toString();
+                    if (typeName.equals("java.lang.String")) {
+                        yield new PropertyDescriptor(name, accessor, kind, "String", "String",
+                                "javafx.beans.property.StringProperty", "javafx.beans.property.SimpleStringProperty");
+                    }
+                    yield new PropertyDescriptor(name, accessor, kind, typeName, typeName,
+                            "javafx.beans.property.ObjectProperty<" + typeName + ">",
+                            "javafx.beans.property.SimpleObjectProperty<>");
+                }
+            };
+        }
+
+        private static PropertyDescriptor primitive(String name, String accessor, TypeKind kind, String primitive, String boxed) {
+            return new PropertyDescriptor(name, accessor, kind, primitive, boxed,
+                    "javafx.beans.property." + boxed + "Property",
+                    "javafx.beans.property.Simple" + boxed + "Property");
+        }
+
+        String differs(String current, String value) {
+            return switch (kind) {
+                case BOOLEAN, INT, LONG -> current + " != " + value;
+                case DOUBLE -> "Double.compare(" + current + ", " + value + ") != 0";
+                case FLOAT -> "Float.compare(" + current + ", " + value + ") != 0";
+                default -> "!java.util.Objects.equals(" + current + ", " + value + ")";
+            };
+        }
+
+        String asObject() {
+            return switch (kind) {
+                case INT, LONG, DOUBLE, FLOAT -> ".asObject()";
+                default -> "";
+            };
+        }
+
+        String getterPrefix() {
+            return kind == TypeKind.BOOLEAN ? "is" : "get";
+        }
+
+        String capitalized() {
+            return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        }
+
+        String constantName() {
+            return name.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase(Locale.ROOT);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.maemlab.mvcifx.processor;
+
+import com.maemlab.mvcifx.annotation.AfterWiring;
+import com.maemlab.mvcifx.annotation.MVCIWiring;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates the factory of the Controllers annotated with {@link MVCIWiring}.
+ *
+ * @see MVCIWiring
+ * @see AfterWiring
+ */
+@SupportedAnnotationTypes("com.maemlab.mvcifx.annotation.MVCIWiring")
+public class MVCIWiringProcessor extends AbstractProcessor {
+    private static final List<String> COMPONENT_TYPES = List.of(
+            "com.maemlab.mvcifx.mvci.Model",
+            "com.maemlab.mvcifx.mvci.Interactor",
+            "com.maemlab.mvcifx.mvci.ViewBuilder",
+            "com.maemlab.mvcifx.mvci.Controller");
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(MVCIWiring.class)) {
+            if (!(element instanceof TypeElement controller) || controller.getKind() != ElementKind.CLASS
+                    || controller.getModifiers().contains(Modifier.ABSTRACT)) {
+                error(element, "@MVCIWiring can only be applied to a concrete class");
+                continue;
+            }
+
+            try {
+                new Graph(controller).generate(controller.getAnnotation(MVCIWiring.class));
+            } catch (WiringException e) {
+                error(e.element, e.getMessage());
+            } catch (IOException e) {
+                error(controller, "Cannot generate the factory of " + controller.getSimpleName() + ": " + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    /**
+     * The object graph of one Controller, resolved in creation order.
+     */
+    private final class Graph {
+        private final TypeElement controller;
+        private final String packageName;
+        private final Map<TypeElement, String> created = new LinkedHashMap<>();
+        private final Map<String, String> factoryParameters = new LinkedHashMap<>();
+        private final Set<TypeElement> resolving = new HashSet<>();
+        private final Set<String> names = new HashSet<>();
+        private final StringBuilder body = new StringBuilder();
+
+        private Graph(TypeElement controller) {
+            this.controller = controller;
+            this.packageName = processingEnv.getElementUtils().getPackageOf(controller).getQualifiedName().toString();
+        }
+
+        private void generate(MVCIWiring annotation) throws IOException {
+            var controllerVariable = create(controller);
+            for (var method : ElementFilter.methodsIn(controller.getEnclosedElements())) {
+                if (method.getAnnotation(AfterWiring.class) == null) {
+                    continue;
+                }
+                if (method.getModifiers().contains(Modifier.PRIVATE) || method.getModifiers().contains(Modifier.STATIC)
+                        || !method.getParameters().isEmpty()) {
+                    throw new WiringException(method, "@AfterWiring methods must not be private or static, and must take no parameters");
+                }
+                body.append("        ").append(controllerVariable).append('.').append(method.getSimpleName()).append("();\n");
+            }
+            body.append("        return ").append(controllerVariable).append(";\n");
+
+            var factoryName = annotation.factoryName().isEmpty()
+                    ? controller.getSimpleName() + "Factory"
+                    : annotation.factoryName();
+            write(factoryName);
+        }
+
+        private String create(TypeElement type) {
+            var existing = created.get(type);
+            if (existing != null) {
+                return existing;
+            }
+            if (!resolving.add(type)) {
+                throw new WiringException(controller, "Dependency cycle involving " + type.getQualifiedName());
+            }
+
+            var constructor = constructorOf(type);
+            var arguments = new ArrayList<String>();
+            for (VariableElement parameter : constructor.getParameters()) {
+                arguments.add(resolve(parameter));
+            }
+
+            var variable = uniqueName(type.getSimpleName().toString());
+            body.append("        var ").append(variable).append(" = new ").append(type.getQualifiedName())
+                .append('(').append(String.join(", ", arguments)).append(");\n");
+            created.put(type, variable);
+            resolving.remove(type);
+            return variable;
+        }
+
+        private String resolve(VariableElement parameter) {
+            var type = parameter.asType();
+            if (type.getKind() == TypeKind.DECLARED) {
+                var element = (TypeElement) ((DeclaredType) type).asElement();
+                if (isComponent(type) && element.getKind() == ElementKind.CLASS && !element.getModifiers().contains(Modifier.ABSTRACT)) {
+                    return create(element);
+                }
+                var reusable = created.entrySet().stream()
+                        .filter(entry -> processingEnv.getTypeUtils().isAssignable(entry.getKey().asType(), erasure(type)))
+                        .map(Map.Entry::getValue)
+                        .toList();
+                if (isComponent(type) && reusable.size() == 1) {
+                    return reusable.get(0);
+                }
+            }
+
+            // not a component: it becomes a parameter of the factory method, shared by all the parameters of the same type
+            var typeName = type.toString();
+            return factoryParameters.computeIfAbsent(typeName, ignored -> uniqueName(parameter.getSimpleName().toString()));
+        }
+
+        private boolean isComponent(TypeMirror type) {
+            var types = processingEnv.getTypeUtils();
+            for (var name : COMPONENT_TYPES) {
+                var component = processingEnv.getElementUtils().getTypeElement(name);
+                if (component != null && types.isAssignable(types.erasure(type), types.erasure(component.asType()))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private TypeMirror erasure(TypeMirror type) {
+            return processingEnv.getTypeUtils().erasure(type);
+        }
+
+        private ExecutableElement constructorOf(TypeElement type) {
+            var samePackage = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().contentEquals(packageName);
+            var candidates = ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+                    .filter(c -> !c.getModifiers().contains(Modifier.PRIVATE))
+                    .filter(c -> samePackage || c.getModifiers().contains(Modifier.PUBLIC))
+                    .toList();
+            if (candidates.size() != 1) {
+                throw new WiringException(type, type.getQualifiedName() + " must have exactly one constructor accessible from " + packageName
+                        + " to be wired, found " + candidates.size());
+            }
+            return candidates.get(0);
+        }
+
+        private String uniqueName(String base) {
+            var name = Character.toLowerCase(base.charAt(0)) + base.substring(1);
+            var unique = name;
+            for (int i = 2; !names.add(unique); i++) {
+                unique = name + i;
+            }
+            return unique;
+        }
+
+        private void write(String factoryName) throws IOException {
+            var src = new StringBuilder();
+            if (!packageName.isEmpty()) {
+                src.append("package ").append(packageName).append(";\n\n");
+            }
+            src.append("// Generated by the mvciFX MVCIWiringProcessor. Do not edit.\n")
+               .append("public final class ").append(factoryName).append(" {\n")
+               .append("    private ").append(factoryName).append("() {}\n\n")
+               .append("    /**\n     * Creates a fully wired {@code ").append(controller.getSimpleName()).append("}.\n")
+               .append("     *\n     * @return a new Controller\n     */\n")
+               .append("    public static ").append(controller.getQualifiedName()).append(" create(");
+            var parameters = new ArrayList<String>();
+            factoryParameters.forEach((type, name) -> parameters.add(type + " " + name));
+            src.append(String.join(", ", parameters)).append(") {\n")
+               .append(body)
+               .append("    }\n")
+               .append("}\n");
+
+            var qualifiedName = packageName.isEmpty() ? factoryName : packageName + "." + factoryName;
+            var file = processingEnv.getFiler().createSourceFile(qualifiedName, controller);
+            try (Writer writer = file.openWriter()) {
+                writer.write(src.toString());
+            }
+        }
+    }
+
+    private static final class WiringException extends RuntimeException {
+        private final transient Element element;
+
+        private WiringException(Element element, String message) {
+            super(message);
+            this.element = element;
+        }
+    }
+}
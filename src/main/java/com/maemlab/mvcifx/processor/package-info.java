@@ -0,0 +1,14 @@
+/**
+ * Provides the annotation processors shipped with the library.
+ *
+ * <p>The processors generate plain Java code at compile time, so that applications need neither runtime reflection
+ * nor classpath scanning. This package is not exported: the processors are discovered by the compiler through
+ * {@code META-INF/services/javax.annotation.processing.Processor} when the library is on the annotation processor path.
+ * <ul>
+ *   <li>{@link com.maemlab.mvcifx.processor.MVCIModelProcessor}: Processes {@link com.maemlab.mvcifx.annotation.MVCIModel}
+ *   <li>{@link com.maemlab.mvcifx.processor.MVCIWiringProcessor}: Processes {@link com.maemlab.mvcifx.annotation.MVCIWiring}
+ * </ul>
+ *
+ * @see com.maemlab.mvcifx.annotation
+ */
+package com.maemlab.mvcifx.processor;
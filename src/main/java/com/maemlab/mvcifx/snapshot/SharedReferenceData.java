@@ -0,0 +1,360 @@
+package com.maemlab.mvcifx.snapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * A reference-data store shared by all the instances of an application running on the same machine.
+ *
+ * <p>Instead of each instance fetching and holding its own copy of large reference data, one process populates a
+ * memory-mapped file and the other processes map it read-only. The data lives in the operating system page cache,
+ * once per machine, rather than in the heap of every instance.
+ *
+ * <p>The store is made of the following files in its directory:
+ * <ul>
+ *   <li>{@code <name>.version}: a small memory-mapped file holding the current version counter and the
+ *       {@link SnapshotCodec#version()} of the published data. Every process reads it to detect updates.</li>
+ *   <li>{@code <name>-<version>.data}: the payload of each published version, written once and never modified,
+ *       after a header holding the {@link SnapshotCodec#version()} it was encoded with. The header is checked when the
+ *       file is mapped, so a payload is never decoded with another codec, even while a newer build of the application
+ *       is publishing.</li>
+ *   <li>{@code <name>.lock}: a lock file making publication exclusive across processes</li>
+ * </ul>
+ * A new version is written to its own data file first, and only then published by incrementing the version counter,
+ * so readers never observe a partially written payload.
+ *
+ * <p>Interactors read the data from their {@code fetchData()} implementation, which already runs on a background thread,
+ * straight from the mapped payload, decoding only what they need:
+ * <pre>{@code
+ * private static final SharedReferenceData<List<Country>> COUNTRIES =
+ *         new SharedReferenceData<>(dir, "countries", new CountryCodec());
+ *
+ * @Override
+ * public void fetchData() throws MVCIException {
+ *     try {
+ *         countryName = COUNTRIES.readOrPopulate(dao::getCountries, reader -> CountryCodec.findName(reader, code)).orElse(null);
+ *     } catch (Exception e) {
+ *         throw new DataException(e);
+ *     }
+ * }
+ * }</pre>
+ * {@link #get()} and {@link #getOrPopulate(Callable)} decode the whole payload into the heap of the calling process.
+ * The decoded data is not kept unless {@link #setDecodeCached(boolean)} is enabled, trading a heap copy per process for
+ * decoding each version only once.
+ *
+ * <p>This class is thread-safe, but its methods perform I/O and must not be called on the JavaFX Application Thread.
+ *
+ * @param <T> The type of the reference data
+ *
+ * @see SnapshotCodec
+ */
+public class SharedReferenceData<T> implements AutoCloseable {
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final int VERSION_OFFSET = 0;
+    private static final int CODEC_OFFSET = 8;
+    private static final int HEADER_SIZE = 8;
+    // file locks are held per process: the threads of this process are serialized first, whatever the instance
+    private static final ConcurrentHashMap<Path, ReentrantLock> PUBLISH_LOCKS = new ConcurrentHashMap<>();
+
+    private final Path directory;
+    private final String name;
+    private final SnapshotCodec<T> codec;
+    private final FileChannel versionChannel;
+    private final MappedByteBuffer versionBuffer;
+    private final ReentrantLock localLock = new ReentrantLock();
+    private final ReentrantLock publishLock;
+
+    private long mappedVersion;
+    private ByteBuffer mappedData;
+    private T decoded;
+    private boolean decodeCached;
+
+    /**
+     * Opens the shared store with the specified name, creating its files if needed.
+     *
+     * @param directory The directory shared by the application instances. Must not be null.
+     * @param name The name of the reference data. Must not be null or blank.
+     * @param codec The codec encoding and decoding the data. Must not be null.
+     * @throws IOException if the store files cannot be created or mapped
+     * @throws IllegalArgumentException if any parameter is invalid
+     */
+    public SharedReferenceData(Path directory, String name, SnapshotCodec<T> codec) throws IOException {
+        if (directory == null || name == null || name.isBlank() || codec == null) {
+            throw new IllegalArgumentException("Directory, name and codec must not be null");
+        }
+
+        this.directory = directory;
+        this.name = name.replaceAll("[^A-Za-z0-9._-]", "_");
+        this.codec = codec;
+
+        Files.createDirectories(directory);
+        this.versionChannel = FileChannel.open(directory.resolve(this.name + ".version"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.versionBuffer = versionChannel.map(FileChannel.MapMode.READ_WRITE, 0, 16);
+        this.publishLock = PUBLISH_LOCKS.computeIfAbsent(lockFile().toAbsolutePath().normalize(), path -> new ReentrantLock());
+    }
+
+    /**
+     * Sets whether {@link #get()} keeps the decoded data until a new version is published, instead of decoding it
+     * at each call. Disabled by default: the decoded data would be a heap copy held by every process.
+     *
+     * @param decodeCached true to keep the decoded data
+     */
+    public void setDecodeCached(boolean decodeCached) {
+        localLock.lock();
+        try {
+            this.decodeCached = decodeCached;
+            if (!decodeCached) {
+                decoded = null;
+            }
+        } finally {
+            localLock.unlock();
+        }
+    }
+
+    /**
+     * Gets the version currently published by any process, or 0 if no compatible data has been published yet.
+     * Data published with a different codec version is considered absent.
+     *
+     * @return the current version
+     */
+    public long currentVersion() {
+        long codecVersion = (long) LONGS.getVolatile(versionBuffer, CODEC_OFFSET);
+        long version = (long) LONGS.getVolatile(versionBuffer, VERSION_OFFSET);
+        return codecVersion == codec.version() ? version : 0;
+    }
+
+    /**
+     * Decodes the current data into the heap. If {@link #setDecodeCached(boolean)} is enabled, the data is only decoded
+     * again when a new version has been published since the last call. Prefer {@link #read(Function)} to keep
+     * the data out of the heap.
+     *
+     * @return the current data, or an empty Optional if no data has been published yet
+     * @throws IOException if the data file cannot be mapped
+     */
+    public Optional<T> get() throws IOException {
+        localLock.lock();
+        try {
+            if (!remap()) {
+                return Optional.empty();
+            }
+            if (decoded != null) {
+                return Optional.of(decoded);
+            }
+            var value = codec.read(new SnapshotReader(mappedData.duplicate()));
+            if (decodeCached) {
+                decoded = value;
+            }
+            return Optional.of(value);
+        } finally {
+            localLock.unlock();
+        }
+    }
+
+    /**
+     * Reads the current data directly from the read-only mapping, without decoding it into the heap.
+     *
+     * @param reader A function reading what it needs from the mapped payload
+     * @param <R> The type of the result
+     * @return the result of the reader, or an empty Optional if no data has been published yet
+     * @throws IOException if the data file cannot be mapped
+     */
+    public <R> Optional<R> read(Function<SnapshotReader, R> reader) throws IOException {
+        ByteBuffer data;
+        localLock.lock();
+        try {
+            if (!remap()) {
+                return Optional.empty();
+            }
+            data = mappedData.duplicate();
+        } finally {
+            localLock.unlock();
+        }
+        return Optional.ofNullable(reader.apply(new SnapshotReader(data)));
+    }
+
+    /**
+     * Reads the current data directly from the read-only mapping, like {@link #read(Function)}. If no process has
+     * published it yet, fetches and publishes it first while holding the cross-process lock, so that only one instance
+     * per machine calls the data source.
+     *
+     * @param fetcher The function fetching the data from the data source
+     * @param reader A function reading what it needs from the mapped payload
+     * @param <R> The type of the result
+     * @return the result of the reader
+     * @throws Exception the exception thrown by the fetcher, or an IOException if the store cannot be accessed
+     */
+    public <R> Optional<R> readOrPopulate(Callable<? extends T> fetcher, Function<SnapshotReader, R> reader) throws Exception {
+        if (!isAvailable()) {
+            withPublishLock(() -> {
+                if (!isAvailable()) { // another instance may have populated the store while we were waiting
+                    doPublish(fetcher.call());
+                }
+                return null;
+            });
+        }
+        return read(reader);
+    }
+
+    /**
+     * Decodes the current data into the heap if any process has already published it. Otherwise, fetches and publishes it
+     * while holding the cross-process lock, so that only one instance per machine calls the data source;
+     * the other instances wait for the lock and then read the published data.
+     *
+     * @param fetcher The function fetching the data from the data source
+     * @return the current data
+     * @throws Exception the exception thrown by the fetcher, or an IOException if the store cannot be accessed
+     */
+    public T getOrPopulate(Callable<? extends T> fetcher) throws Exception {
+        var current = get();
+        if (current.isPresent()) {
+            return current.get();
+        }
+
+        return withPublishLock(() -> {
+            var published = get();
+            if (published.isPresent()) {
+                return published.get(); // another instance populated the store while we were waiting
+            }
+            T value = fetcher.call();
+            doPublish(value);
+            return value;
+        });
+    }
+
+    /**
+     * Publishes a new version of the data, making it visible to every process using this store.
+     *
+     * @param value The new data
+     * @throws IOException if the data cannot be written
+     */
+    public void publish(T value) throws IOException {
+        try {
+            withPublishLock(() -> {
+                doPublish(value);
+                return null;
+            });
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+
+    private boolean isAvailable() throws IOException {
+        localLock.lock();
+        try {
+            return remap();
+        } finally {
+            localLock.unlock();
+        }
+    }
+
+    private <R> R withPublishLock(Callable<R> action) throws Exception {
+        publishLock.lock();
+        try (var lockChannel = FileChannel.open(lockFile(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             var ignored = lockChannel.lock()) {
+            return action.call();
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    private void doPublish(T value) throws IOException {
+        long next = Math.max((long) LONGS.getVolatile(versionBuffer, VERSION_OFFSET), 0) + 1;
+
+        var payload = new ByteArrayOutputStream();
+        var writer = new SnapshotWriter(payload);
+        codec.write(value, writer);
+        writer.flush();
+
+        try (var channel = FileChannel.open(dataFile(next),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            var header = ByteBuffer.allocate(HEADER_SIZE).putLong(0, codec.version());
+            var buffer = ByteBuffer.wrap(payload.toByteArray());
+            while (header.hasRemaining() || buffer.hasRemaining()) {
+                channel.write(new ByteBuffer[] {header, buffer});
+            }
+            channel.force(true);
+        }
+
+        LONGS.setVolatile(versionBuffer, CODEC_OFFSET, codec.version());
+        LONGS.setVolatile(versionBuffer, VERSION_OFFSET, next);
+        versionBuffer.force();
+
+        // keep the previous version for readers switching right now; older ones are no longer referenced
+        try {
+            for (long old = next - 2; old > 0 && Files.deleteIfExists(dataFile(old)); old--) {
+                // delete down to the first version already removed
+            }
+        } catch (IOException e) {
+            // some platforms do not allow deleting a mapped file: it is deleted by a later publication
+        }
+    }
+
+    private boolean remap() throws IOException {
+        while (true) {
+            long version = currentVersion();
+            if (version == 0) {
+                return false;
+            }
+            if (version == mappedVersion) {
+                return true;
+            }
+            try (var channel = FileChannel.open(dataFile(version), StandardOpenOption.READ)) {
+                // the version file may pair the codec version of a publication in progress with the previous payload
+                var data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                if (data.limit() < HEADER_SIZE || data.getLong(0) != codec.version()) {
+                    return false;
+                }
+                mappedData = data.position(HEADER_SIZE).slice();
+                mappedVersion = version;
+                decoded = null;
+                return true;
+            } catch (NoSuchFileException e) {
+                // the version was superseded and its file deleted while we were reading it: read the new version
+            }
+        }
+    }
+
+    private Path lockFile() {
+        return directory.resolve(name + ".lock");
+    }
+
+    private Path dataFile(long version) {
+        return directory.resolve(name + "-" + version + ".data");
+    }
+
+    /**
+     * Releases the version mapping of this store. The data files are left in place for the other processes.
+     *
+     * @throws IOException if the version file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        localLock.lock();
+        try {
+            mappedData = null;
+            decoded = null;
+            mappedVersion = 0;
+            versionChannel.close();
+        } finally {
+            localLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.maemlab.mvcifx.snapshot;
+
+/**
+ * The data restored from a snapshot, together with the fingerprint of the fetch result it was taken from.
+ *
+ * @param value The decoded data
+ * @param fingerprint The fingerprint of the data, meaningful only if {@code hasFingerprint} is true
+ * @param hasFingerprint Whether the snapshot was taken from a fingerprinted fetch result
+ * @param <T> The type of the data
+ *
+ * @see SnapshotStore
+ */
+public record Snapshot<T>(T value, long fingerprint, boolean hasFingerprint) {
+}
@@ -0,0 +1,89 @@
+package com.maemlab.mvcifx.snapshot;
+
+import com.maemlab.mvcifx.lookup.Fingerprint;
+
+import java.io.IOException;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Encodes and decodes the data stored in a snapshot.
+ *
+ * <p>The {@link #version()} of the codec is stored in the header of every snapshot: a snapshot written with a
+ * different version is discarded instead of being decoded. The version must therefore change whenever the
+ * encoded layout changes, e.g. when a field is added to the model class. {@link #versionOf(Class...)}
+ * derives it from the declared fields of the encoded classes, so that a changed model class invalidates
+ * the snapshots automatically.
+ *
+ * <p>Example implementation:
+ * <pre>{@code
+ * public class NirvanaCodec implements SnapshotCodec<List<Nirvana>> {
+ *     private static final long VERSION = SnapshotCodec.versionOf(Nirvana.class);
+ *
+ *     public long version() {
+ *         return VERSION;
+ *     }
+ *
+ *     public void write(List<Nirvana> nirvanas, SnapshotWriter out) throws IOException {
+ *         out.writeInt(nirvanas.size());
+ *         for (var n : nirvanas) {
+ *             out.writeString(n.getName()).writeString(n.getSurname()).writeInt(n.getAge());
+ *         }
+ *     }
+ *
+ *     public List<Nirvana> read(SnapshotReader in) {
+ *         var nirvanas = new ArrayList<Nirvana>(in.readInt());
+ *         // read back every field in the same order...
+ *         return nirvanas;
+ *     }
+ * }
+ * }</pre>
+ *
+ * @param <T> The type of the data stored in the snapshot
+ *
+ * @see SnapshotStore
+ */
+public interface SnapshotCodec<T> {
+    /**
+     * Gets the version of the encoded layout.
+     * @return the layout version
+     */
+    long version();
+
+    /**
+     * Encodes the specified data.
+     *
+     * @param value The data to encode
+     * @param out The writer receiving the payload
+     * @throws IOException if an I/O error occurs
+     */
+    void write(T value, SnapshotWriter out) throws IOException;
+
+    /**
+     * Decodes data previously encoded by {@link #write(Object, SnapshotWriter)} with the same {@link #version()}.
+     *
+     * @param in The reader over the payload
+     * @return the decoded data
+     */
+    T read(SnapshotReader in);
+
+    /**
+     * Computes a layout version from the names and types of the non-static fields declared by the specified classes.
+     * Adding, removing, renaming or retyping a field changes the version.
+     *
+     * @param classes The classes whose instances are encoded
+     * @return a version suitable for {@link #version()}
+     */
+    static long versionOf(Class<?>... classes) {
+        var fingerprint = new Fingerprint();
+        for (var type : classes) {
+            fingerprint.add(type.getName());
+            Arrays.stream(type.getDeclaredFields())
+                    .filter(field -> !Modifier.isStatic(field.getModifiers()))
+                    .sorted(Comparator.comparing(java.lang.reflect.Field::getName))
+                    .forEach(field -> fingerprint.add(field.getName()).add(field.getGenericType().getTypeName()));
+        }
+        return fingerprint.value();
+    }
+}
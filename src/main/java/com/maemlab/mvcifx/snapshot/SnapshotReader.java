@@ -0,0 +1,60 @@
+package com.maemlab.mvcifx.snapshot;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads the binary payload of a snapshot directly from a {@link ByteBuffer}, e.g. a snapshot file read at once or a memory-mapped file.
+ * Values must be read in the same order they were written by the {@link SnapshotWriter}.
+ *
+ * <p>Reading past the end of the payload throws a {@link java.nio.BufferUnderflowException},
+ * which invalidates the snapshot.
+ *
+ * @see SnapshotCodec
+ * @see SnapshotWriter
+ */
+public final class SnapshotReader {
+    private final ByteBuffer buffer;
+
+    SnapshotReader(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    public int readInt() {
+        return buffer.getInt();
+    }
+
+    public long readLong() {
+        return buffer.getLong();
+    }
+
+    public double readDouble() {
+        return buffer.getDouble();
+    }
+
+    public boolean readBoolean() {
+        return buffer.get() != 0;
+    }
+
+    /**
+     * Reads a string written by {@link SnapshotWriter#writeString(String)}.
+     *
+     * @return the string read, or null if a null string was written
+     */
+    public String readString() {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        var bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the number of payload bytes not read yet
+     */
+    public int remaining() {
+        return buffer.remaining();
+    }
+}
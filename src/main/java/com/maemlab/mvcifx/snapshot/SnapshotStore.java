@@ -0,0 +1,188 @@
+package com.maemlab.mvcifx.snapshot;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/**
+ * Persists the last result applied by each controller to a compact binary snapshot on local disk, so that
+ * screens can show it immediately at the next start, before their first fetch returns.
+ *
+ * <p>Each snapshot is stored in its own file, named after its identifier, with the following layout:
+ * <ul>
+ *   <li>a header holding a magic number, the format version of this store, the {@link SnapshotCodec#version()}
+ *       of the codec, the fingerprint of the data and the length and CRC-32 of the payload</li>
+ *   <li>the payload written by the {@link SnapshotCodec}</li>
+ * </ul>
+ *
+ * <p>Snapshots are written to a temporary file and atomically moved in place, so a crash never leaves a half-written
+ * snapshot. They are read at once into a heap buffer and decoded from it: unlike a memory mapping, which lives until it
+ * is garbage collected, it never keeps the file locked, so that the next save can replace it on every platform.
+ * A snapshot with a different codec version, a corrupted payload or a payload the codec cannot decode is deleted and ignored.
+ *
+ * <p>This class is thread-safe, but its methods perform I/O and must not be called on the JavaFX Application Thread.
+ * Controllers use it through {@link com.maemlab.mvcifx.lookup.LookupRunner#enableSnapshots(SnapshotStore)}.
+ *
+ * @see SnapshotCodec
+ * @see com.maemlab.mvcifx.mvci.base.SnapshotInteractor
+ */
+public class SnapshotStore {
+    private static final int MAGIC = 0x4D564353; // "MVCS"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 1 + 4 + 8;
+
+    private final Path directory;
+
+    /**
+     * Creates a new store keeping its snapshots in the specified directory.
+     * The directory is created on the first save if it does not exist.
+     *
+     * @param directory The directory holding the snapshot files. Must not be null.
+     * @throws IllegalArgumentException if the directory is null
+     */
+    public SnapshotStore(Path directory) {
+        if (directory == null) {
+            throw new IllegalArgumentException("Directory must not be null");
+        }
+
+        this.directory = directory;
+    }
+
+    /**
+     * Creates a store in the {@code .mvcifx/<applicationName>/snapshots} directory of the user's home.
+     *
+     * @param applicationName The name of the application, used to separate the snapshots of different applications
+     * @return a SnapshotStore
+     */
+    public static SnapshotStore inUserHome(String applicationName) {
+        return new SnapshotStore(Path.of(System.getProperty("user.home"), ".mvcifx", sanitize(applicationName), "snapshots"));
+    }
+
+    /**
+     * Saves a snapshot, replacing the previous one with the same identifier.
+     *
+     * @param id The identifier of the snapshot, typically one per controller
+     * @param codec The codec encoding the data
+     * @param value The data to save
+     * @param fingerprint The fingerprint of the data, or null if it is not known
+     * @param <T> The type of the data
+     * @throws IOException if the snapshot cannot be written
+     */
+    public <T> void save(String id, SnapshotCodec<T> codec, T value, Long fingerprint) throws IOException {
+        var payload = new ByteArrayOutputStream();
+        var writer = new SnapshotWriter(payload);
+        codec.write(value, writer);
+        writer.flush();
+        var bytes = payload.toByteArray();
+
+        var crc = new CRC32();
+        crc.update(bytes);
+
+        var header = ByteBuffer.allocate(HEADER_SIZE)
+                .putInt(MAGIC)
+                .putInt(FORMAT_VERSION)
+                .putLong(codec.version())
+                .putLong(fingerprint == null ? 0 : fingerprint)
+                .put((byte) (fingerprint == null ? 0 : 1))
+                .putInt(bytes.length)
+                .putLong(crc.getValue());
+
+        Files.createDirectories(directory);
+        var target = pathOf(id);
+        var temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                out.write(header.array());
+                out.write(bytes);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Loads a snapshot.
+     *
+     * @param id The identifier of the snapshot
+     * @param codec The codec decoding the data
+     * @param <T> The type of the data
+     * @return the snapshot, or an empty Optional if there is no valid snapshot for the given identifier and codec version
+     * @throws IOException if the snapshot file exists but cannot be read
+     */
+    public <T> Optional<Snapshot<T>> load(String id, SnapshotCodec<T> codec) throws IOException {
+        var path = pathOf(id);
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+
+        var snapshot = decode(ByteBuffer.wrap(Files.readAllBytes(path)), codec);
+        if (snapshot.isEmpty()) {
+            Files.deleteIfExists(path);
+        }
+        return snapshot;
+    }
+
+    private static <T> Optional<Snapshot<T>> decode(ByteBuffer buffer, SnapshotCodec<T> codec) {
+        try {
+            if (buffer.remaining() < HEADER_SIZE
+                    || buffer.getInt() != MAGIC
+                    || buffer.getInt() != FORMAT_VERSION
+                    || buffer.getLong() != codec.version()) {
+                return Optional.empty();
+            }
+            long fingerprint = buffer.getLong();
+            boolean hasFingerprint = buffer.get() != 0;
+            int length = buffer.getInt();
+            long expectedCrc = buffer.getLong();
+            if (length != buffer.remaining()) {
+                return Optional.empty();
+            }
+
+            var payload = buffer.slice();
+            var crc = new CRC32();
+            crc.update(payload.duplicate());
+            if (crc.getValue() != expectedCrc) {
+                return Optional.empty();
+            }
+
+            var value = codec.read(new SnapshotReader(payload));
+            return Optional.of(new Snapshot<>(value, fingerprint, hasFingerprint));
+        } catch (RuntimeException e) {
+            return Optional.empty(); // the codec could not decode the payload: treat the snapshot as invalid
+        }
+    }
+
+    /**
+     * Deletes a snapshot.
+     *
+     * @param id The identifier of the snapshot
+     * @throws IOException if the snapshot file cannot be deleted
+     */
+    public void delete(String id) throws IOException {
+        Files.deleteIfExists(pathOf(id));
+    }
+
+    private Path pathOf(String id) {
+        return directory.resolve(sanitize(id) + ".snap");
+    }
+
+    private static String sanitize(String name) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Name must not be null or blank");
+        }
+        return name.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+}
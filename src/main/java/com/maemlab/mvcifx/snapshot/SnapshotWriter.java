@@ -0,0 +1,63 @@
+package com.maemlab.mvcifx.snapshot;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes the compact binary payload of a snapshot. Values must be read back in the same order
+ * through a {@link SnapshotReader}.
+ *
+ * @see SnapshotCodec
+ * @see SnapshotReader
+ */
+public final class SnapshotWriter {
+    private final DataOutputStream out;
+
+    SnapshotWriter(OutputStream out) {
+        this.out = new DataOutputStream(out);
+    }
+
+    public SnapshotWriter writeInt(int value) throws IOException {
+        out.writeInt(value);
+        return this;
+    }
+
+    public SnapshotWriter writeLong(long value) throws IOException {
+        out.writeLong(value);
+        return this;
+    }
+
+    public SnapshotWriter writeDouble(double value) throws IOException {
+        out.writeDouble(value);
+        return this;
+    }
+
+    public SnapshotWriter writeBoolean(boolean value) throws IOException {
+        out.writeBoolean(value);
+        return this;
+    }
+
+    /**
+     * Writes a string as its UTF-8 bytes, preceded by their length.
+     *
+     * @param value The string to write. May be null.
+     * @return this writer
+     * @throws IOException if an I/O error occurs
+     */
+    public SnapshotWriter writeString(String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            var bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+        return this;
+    }
+
+    void flush() throws IOException {
+        out.flush();
+    }
+}
@@ -0,0 +1,18 @@
+/**
+ * Provides local persistence and sharing of Model data.
+ *
+ * <p>This package contains the components used to store fetched data on local disk:
+ * <ul>
+ *   <li>{@link com.maemlab.mvcifx.snapshot.SnapshotStore}: Persists the last applied result of each controller
+ *   to a versioned binary snapshot, read back in one read at startup
+ *   <li>{@link com.maemlab.mvcifx.snapshot.SnapshotCodec}: Encodes and decodes the data of a snapshot, and defines its layout version
+ *   <li>{@link com.maemlab.mvcifx.snapshot.SnapshotWriter} and {@link com.maemlab.mvcifx.snapshot.SnapshotReader}:
+ *   Write and read the compact binary payload of a snapshot
+ *   <li>{@link com.maemlab.mvcifx.snapshot.SharedReferenceData}: Shares reference data between the application instances
+ *   running on the same machine through a memory-mapped file, published with a version counter
+ * </ul>
+ *
+ * @see com.maemlab.mvcifx.mvci.base.SnapshotInteractor
+ * @see com.maemlab.mvcifx.lookup.LookupRunner
+ */
+package com.maemlab.mvcifx.snapshot;
@@ -1,8 +1,19 @@
 module mvciFX {
     requires javafx.controls;
+    requires static java.compiler;
 
     exports com.maemlab.mvcifx.mvci;
     exports com.maemlab.mvcifx.mvci.base;
     exports com.maemlab.mvcifx.mvci.statetracking;
     exports com.maemlab.mvcifx.exception;
-}
\ No newline at end of file
+    exports com.maemlab.mvcifx.collections;
+    exports com.maemlab.mvcifx.lookup;
+    exports com.maemlab.mvcifx.snapshot;
+    exports com.maemlab.mvcifx.annotation;
+    exports com.maemlab.mvcifx.navigation;
+    exports com.maemlab.mvcifx.change;
+
+    provides javax.annotation.processing.Processor with
+            com.maemlab.mvcifx.processor.MVCIModelProcessor,
+            com.maemlab.mvcifx.processor.MVCIWiringProcessor;
+}
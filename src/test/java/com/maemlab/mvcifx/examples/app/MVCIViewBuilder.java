@@ -2,6 +2,8 @@ package com.maemlab.mvcifx.examples.app;
 
 import com.maemlab.mvcifx.examples.mvci.simple.SimpleController;
 import com.maemlab.mvcifx.examples.mvci.statetracking.STController;
+import com.maemlab.mvcifx.navigation.ScreenRegistry;
+import com.maemlab.mvcifx.navigation.ViewCache;
 import javafx.geometry.Pos;
 import javafx.scene.Node;
 import javafx.scene.control.ScrollPane;
@@ -14,21 +16,31 @@ import javafx.scene.layout.VBox;
 import javafx.util.Builder;
 
 public class MVCIViewBuilder implements Builder<Region> {
-    private final Region simpleViewBuilder = new SimpleController().getView();
-    private final Region stViewBuilder = STController.create().getView();
+    private static final String SIMPLE = "simple";
+    private static final String STATE_TRACKING = "state-tracking";
+
+    private final ScreenRegistry screens = new ScreenRegistry();
+    private final StackPane center = new StackPane();
+    private final ViewCache views = new ViewCache(center, 5);
+
+    public MVCIViewBuilder() {
+        screens.register(SIMPLE, SimpleController::new);
+        screens.register(STATE_TRACKING, STController::create);
+    }
 
     @Override
     public Region build() {
         var bp = new BorderPane();
         bp.setLeft(createLeft());
-        bp.setCenter(createCenter());
+        bp.setCenter(center);
+        screens.warmUp(STATE_TRACKING);
         return bp;
     }
 
     private Node createLeft() {
-        var btn = buildMenuItem("Simple Example", simpleViewBuilder);
+        var btn = buildMenuItem("Simple Example", SIMPLE);
         btn.setSelected(true);
-        var btn1 = buildMenuItem("State Tracking Example", stViewBuilder);
+        var btn1 = buildMenuItem("State Tracking Example", STATE_TRACKING);
 
         buildToggleButton(btn, btn1);
 
@@ -41,11 +53,17 @@ public class MVCIViewBuilder implements Builder<Region> {
         tg.getToggles().add(btn1);
     }
 
-    private ToggleButton buildMenuItem(String label, Node node) {
+    private ToggleButton buildMenuItem(String label, String screenId) {
         var btn = new ToggleButton(label);
 //        btn.setGraphicTextGap(10);
         btn.setAlignment(Pos.CENTER_LEFT);
-        node.visibleProperty().bind(btn.selectedProperty());
+        btn.setOnMouseEntered(evt -> screens.prefetch(screenId, true));
+        btn.setOnMouseExited(evt -> screens.cancelPrefetch());
+        btn.selectedProperty().addListener((obs, old, selected) -> {
+            if (selected) {
+                views.show(screens.getController(screenId));
+            }
+        });
         return btn;
     }
 
@@ -66,8 +84,4 @@ public class MVCIViewBuilder implements Builder<Region> {
         scrollPane.setContent(bp);
         return scrollPane;
     }
-
-    private Node createCenter() {
-        return new StackPane(simpleViewBuilder, stViewBuilder);
-    }
 }
@@ -1,7 +1,5 @@
 package com.maemlab.mvcifx.examples.mvci.statetracking;
 
-import javafx.concurrent.Task;
-
 public class STController extends CommonController<STModel, STInteractor, STViewBuilder> {
 
     private STController(STModel model, STInteractor interactor, STViewBuilder viewBuilder) {
@@ -19,6 +17,8 @@ public class STController extends CommonController<STModel, STInteractor, STView
     }
 
     private void initialize() {
+        setSuspendedWhileHidden(true);
+
         this.model.deleteConfirmedProperty().addListener((obs, old, confirmed) -> {
             if (confirmed) {
                 handleDelete();
@@ -32,24 +32,6 @@ public class STController extends CommonController<STModel, STInteractor, STView
         });
     }
 
-    @Override
-    public void lookup(Runnable innerRunnable) {
-        Task<Void> task = new Task<>() {
-            @Override
-            protected Void call() throws Exception {
-                interactor.fetchData();
-                return null;
-            }
-        };
-
-        task.setOnSucceeded(evt -> this.interactor.updateModelAfterFetchingData());
-
-        task.setOnFailed(evt -> System.out.println(task.getException()));
-
-        var taskThread = new Thread(task);
-        taskThread.start();
-    }
-
     private void delete() {
         model.setDeleteRequested(true);
     }
@@ -3,12 +3,14 @@ package com.maemlab.mvcifx.examples.mvci.statetracking;
 import com.maemlab.mvcifx.examples.data.DAONirvana;
 import com.maemlab.mvcifx.examples.data.Nirvana;
 import com.maemlab.mvcifx.exception.MVCIException;
-import com.maemlab.mvcifx.mvci.Interactor;
 import com.maemlab.mvcifx.examples.data.NirvanaModel;
+import com.maemlab.mvcifx.lookup.Fingerprint;
+import com.maemlab.mvcifx.mvci.base.FingerprintingInteractor;
+import com.maemlab.mvcifx.mvci.base.ResilientInteractor;
 
 import java.util.List;
 
-public class STInteractor implements Interactor {
+public class STInteractor implements FingerprintingInteractor<STModel>, ResilientInteractor<STModel> {
     private final STModel model;
     private List<Nirvana> nirvanas;
 
@@ -21,6 +23,16 @@ public class STInteractor implements Interactor {
         nirvanas = DAONirvana.getInstance().getPersons();
     }
 
+    @Override
+    public String dataSourceId() {
+        return "nirvana";
+    }
+
+    @Override
+    public long fingerprint() {
+        return Fingerprint.of(nirvanas, Nirvana::getName, Nirvana::getSurname, Nirvana::getAge);
+    }
+
     @Override
     public void updateModelAfterFetchingData() {
         this.model.getFetchedNirvanaModelList().setAll(nirvanas.stream().map(NirvanaModel::toModel).toList());
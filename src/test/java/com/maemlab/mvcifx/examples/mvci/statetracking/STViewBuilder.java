@@ -1,5 +1,6 @@
 package com.maemlab.mvcifx.examples.mvci.statetracking;
 
+import com.maemlab.mvcifx.examples.data.NirvanaModel;
 import com.maemlab.mvcifx.examples.mvci.util.TableViewUtil;
 import com.maemlab.mvcifx.mvci.statetracking.StateTrackingAbstractViewBuilder;
 import javafx.beans.binding.Bindings;
@@ -7,6 +8,7 @@ import javafx.beans.binding.BooleanBinding;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.ButtonType;
+import javafx.scene.control.TableView;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Region;
 import javafx.scene.layout.VBox;
@@ -20,6 +22,7 @@ public class STViewBuilder extends StateTrackingAbstractViewBuilder<STModel> {
     private Runnable saveAction;
     private Runnable deleteAction;
     private Runnable quitAction;
+    private TableView<NirvanaModel> table;
 
     public STViewBuilder(STModel model) {
         super(model);// This will set the model field in ViewBuilder
@@ -38,9 +41,7 @@ public class STViewBuilder extends StateTrackingAbstractViewBuilder<STModel> {
         button.setOnAction(evt -> lookupAction.accept(() -> button.setDisable(false)));
 
         var table = TableViewUtil.createTableView();
-        table.setItems(model.getFetchedNirvanaModelList());
-        var selectedItemProperty = table.getSelectionModel().selectedItemProperty();
-        model.selectedItemProperty().bind(selectedItemProperty);
+        this.table = table;
 
         BooleanBinding isItemSelected = Bindings.createBooleanBinding(
                 () -> !table.getSelectionModel().isEmpty(),
@@ -68,11 +69,21 @@ public class STViewBuilder extends StateTrackingAbstractViewBuilder<STModel> {
         vbox.getChildren().add(table);
         vbox.getChildren().add(hbox);
 
-        setupModelListeners(vbox);
-
         return vbox;
     }
 
+    @Override
+    protected void bindToModel(Region root) {
+        table.setItems(model.getFetchedNirvanaModelList());
+        model.selectedItemProperty().bind(table.getSelectionModel().selectedItemProperty());
+        setupModelListeners(root);
+    }
+
+    @Override
+    protected boolean supportsBackgroundBuild() {
+        return true;
+    }
+
     @Override
     public void handleError(Window parentWindow, Throwable error) {
         Alert a = new Alert(Alert.AlertType.ERROR);